@@ -0,0 +1,72 @@
+package net.benfro.collections.jfr;
+
+import jdk.jfr.EventType;
+import net.benfro.collections.metrics.ListFlightRecorder;
+
+/**
+ * The JFR backed {@link ListFlightRecorder}, loaded reflectively when present. Events are only allocated while a
+ * recording has them enabled.
+ */
+public final class JfrListFlightRecorder extends ListFlightRecorder {
+
+   private static final EventType CHANGE_DISPATCHED = EventType.getEventType(ListChangeDispatchedEvent.class);
+   private static final EventType WRITE_LOCK_HELD = EventType.getEventType(WriteLockHeldEvent.class);
+
+   @Override
+   public Object beginChangeDispatch() {
+      if (!CHANGE_DISPATCHED.isEnabled()) {
+         return null;
+      }
+      ListChangeDispatchedEvent event = new ListChangeDispatchedEvent();
+      event.begin();
+      return event;
+   }
+
+   @Override
+   public void commitChangeDispatch(Object started, String listId, String eventType, int blockCount,
+                                    int elementCount, int listenerCount) {
+      if (started == null) {
+         return;
+      }
+      ListChangeDispatchedEvent event = (ListChangeDispatchedEvent) started;
+      event.end();
+      if (event.shouldCommit()) {
+         event.listId = listId;
+         event.eventType = eventType;
+         event.blockCount = blockCount;
+         event.elementCount = elementCount;
+         event.listenerCount = listenerCount;
+         event.commit();
+      }
+   }
+
+   @Override
+   public Object beginWriteLockHold() {
+      if (!WRITE_LOCK_HELD.isEnabled()) {
+         return null;
+      }
+      WriteLockHeldEvent event = new WriteLockHeldEvent();
+      event.acquiringThread = Thread.currentThread();
+      event.begin();
+      return event;
+   }
+
+   @Override
+   public void commitWriteLockHold(Object started, String listId, String operation) {
+      if (started == null) {
+         return;
+      }
+      WriteLockHeldEvent event = (WriteLockHeldEvent) started;
+      event.end();
+      if (event.shouldCommit()) {
+         event.listId = listId;
+         event.operation = operation;
+         event.commit();
+      }
+   }
+
+   @Override
+   public boolean recordsWriteLockHolds() {
+      return WRITE_LOCK_HELD.isEnabled();
+   }
+}
@@ -0,0 +1,31 @@
+package net.benfro.collections.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("net.benfro.collections.ListChangeDispatched")
+@Label("ObservableList Change Dispatched")
+@Description("A GlazedLists list event translated and dispatched to the ObservableListListeners")
+@Category("GUI Collections")
+@StackTrace(false)
+public class ListChangeDispatchedEvent extends jdk.jfr.Event {
+
+   @Label("List Id")
+   String listId;
+
+   @Label("Event Type")
+   @Description("INSERT, DELETE, UPDATE or MIXED")
+   String eventType;
+
+   @Label("Block Count")
+   int blockCount;
+
+   @Label("Element Count")
+   int elementCount;
+
+   @Label("Listener Count")
+   int listenerCount;
+}
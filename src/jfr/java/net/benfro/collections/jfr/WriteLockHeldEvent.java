@@ -0,0 +1,22 @@
+package net.benfro.collections.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("net.benfro.collections.WriteLockHeld")
+@Label("Write Lock Held")
+@Description("A period during which a list's write lock was held")
+@Category("GUI Collections")
+public class WriteLockHeldEvent extends jdk.jfr.Event {
+
+   @Label("List Id")
+   String listId;
+
+   @Label("Operation")
+   String operation;
+
+   @Label("Acquiring Thread")
+   Thread acquiringThread;
+}
@@ -0,0 +1,62 @@
+package net.benfro.collections;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Bulk mutations through {@link DefaultObservableList}, one listener attached. A fresh list is built for every
+ * invocation since each one changes a large part of it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObservableListBulkBenchmark {
+
+   @Param({"1000", "10000", "100000"})
+   int size;
+
+   @Param({"10", "1000"})
+   int changed;
+
+   private List<Integer> data;
+   private List<Integer> toAdd;
+   private List<Integer> toRemove;
+   private DefaultObservableList<Integer> list;
+
+   @Setup
+   public void setUpData() {
+      data = IntStream.range(0, size).boxed().collect(Collectors.toList());
+      toAdd = IntStream.range(size, size + changed).boxed().collect(Collectors.toList());
+      final int step = Math.max(1, size / changed);
+      toRemove = IntStream.range(0, changed).map(i -> i * step).boxed().collect(Collectors.toList());
+   }
+
+   @Setup(Level.Invocation)
+   public void setUpList(Blackhole blackhole) {
+      list = DefaultObservableList.of(data);
+      list.addObservableListListener(new ObservableListMutationBenchmark.ConsumingListener(blackhole));
+   }
+
+   @Benchmark
+   public boolean addAll() {
+      return list.addAll(toAdd);
+   }
+
+   @Benchmark
+   public boolean removeAllScattered() {
+      return list.removeAll(toRemove);
+   }
+
+   @Benchmark
+   public void batchAdds() {
+      list.batch(l -> toAdd.forEach(l::add));
+   }
+}
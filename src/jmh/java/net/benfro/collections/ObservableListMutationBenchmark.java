@@ -0,0 +1,107 @@
+package net.benfro.collections;
+
+import org.jdesktop.observablecollections.ObservableList;
+import org.jdesktop.observablecollections.ObservableListListener;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Single element mutations through {@link DefaultObservableList} with a varying number of listeners. Adds and
+ * removes are measured in pairs to keep the list size stable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObservableListMutationBenchmark {
+
+   /**
+    * A listener doing the least possible work without being optimized away
+    */
+   static class ConsumingListener implements ObservableListListener {
+      private final Blackhole blackhole;
+
+      ConsumingListener(Blackhole blackhole) {
+         this.blackhole = blackhole;
+      }
+
+      @Override
+      public void listElementsAdded(ObservableList list, int index, int length) {
+         blackhole.consume(length);
+      }
+
+      @Override
+      public void listElementsRemoved(ObservableList list, int index, List oldElements) {
+         blackhole.consume(oldElements);
+      }
+
+      @Override
+      public void listElementReplaced(ObservableList list, int index, Object oldElement) {
+         blackhole.consume(oldElement);
+      }
+
+      @Override
+      public void listElementPropertyChanged(ObservableList list, int index) {
+         blackhole.consume(index);
+      }
+   }
+
+   @Param({"1000", "10000", "100000", "1000000"})
+   int size;
+
+   @Param({"0", "1", "10"})
+   int listeners;
+
+   private DefaultObservableList<Integer> list;
+   private Integer[] values;
+   private int index;
+
+   @Setup
+   public void setUp(Blackhole blackhole) {
+      List<Integer> data = IntStream.range(0, size).boxed().collect(Collectors.toList());
+      list = DefaultObservableList.of(data);
+      values = data.toArray(new Integer[0]);
+      for (int i = 0; i < listeners; i++) {
+         list.addObservableListListener(new ConsumingListener(blackhole));
+      }
+   }
+
+   private int nextIndex() {
+      index = (index + 1) % size;
+      return index;
+   }
+
+   /**
+    * Replaces one element at a time. Run with the GC profiler ({@code gc.alloc.rate.norm}) to see that the
+    * allocation per event does not depend on the list size.
+    */
+   @Benchmark
+   public Integer setElement() {
+      final int i = nextIndex();
+      return list.set(i, values[size - i - 1]);
+   }
+
+   @Benchmark
+   public Integer addAndRemoveLast() {
+      list.add(values[nextIndex()]);
+      return list.remove(size);
+   }
+
+   @Benchmark
+   public void removeAndAddFirst() {
+      list.add(0, list.remove(0));
+   }
+
+   @Benchmark
+   public void removeAndAddMiddle() {
+      final int i = nextIndex();
+      list.add(i, list.remove(i));
+   }
+}
@@ -0,0 +1,66 @@
+package net.benfro.collections;
+
+import ca.odell.glazedlists.GlazedLists;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Seven readers against one writer on a thread safe list, guarded by the GlazedLists lock or by a
+ * {@link StampedReadWriteLock}. Readers either take the read lock or read optimistically.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadMostlyBenchmark {
+
+   @Param({"GLAZEDLISTS", "STAMPED"})
+   String lock;
+
+   private DefaultObservableList<Integer> list;
+   private int middle;
+   private int value;
+
+   @Setup
+   public void setUp() {
+      List<Integer> data = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+      list = "STAMPED".equals(lock)
+              ? DefaultObservableList.ofReadMostly(data)
+              : new DefaultObservableList<>(GlazedLists.threadSafeList(GlazedLists.eventList(data)), false);
+      middle = data.size() / 2;
+   }
+
+   @Benchmark
+   @Group("locked")
+   @GroupThreads(7)
+   public Integer lockedRead() {
+      return list.readWithLock(l -> l.get(middle));
+   }
+
+   @Benchmark
+   @Group("locked")
+   @GroupThreads(1)
+   public Integer lockedWrite() {
+      return list.set(0, value++);
+   }
+
+   @Benchmark
+   @Group("optimistic")
+   @GroupThreads(7)
+   public Integer optimisticRead() {
+      return list.readOptimistic(l -> l.get(middle));
+   }
+
+   @Benchmark
+   @Group("optimistic")
+   @GroupThreads(1)
+   public Integer optimisticWrite() {
+      return list.set(0, value++);
+   }
+}
@@ -0,0 +1,48 @@
+package net.benfro.collections;
+
+import ca.odell.glazedlists.GlazedLists;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Selection lookups on {@link DefaultSelectableList} with the selected element at the end of the list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SelectableListBenchmark {
+
+   @Param({"1000", "100000", "1000000"})
+   int size;
+
+   private DefaultSelectableList<Integer> list;
+
+   @Setup
+   public void setUp() {
+      List<Integer> data = IntStream.range(0, size).boxed().collect(Collectors.toList());
+      list = new DefaultSelectableList<>(GlazedLists.eventList(data));
+      list.setSelectedIndex(size - 1);
+   }
+
+   @Benchmark
+   public int getSelectedIndex() {
+      return list.getSelectedIndex();
+   }
+
+   @Benchmark
+   public boolean isElementSelected() {
+      return list.isElementSelected();
+   }
+
+   @Benchmark
+   public void setSelectedIndex() {
+      list.setSelectedIndex(size - 1);
+   }
+}
@@ -0,0 +1,114 @@
+package net.benfro.collections.ingest;
+
+import net.benfro.collections.DefaultObservableList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Producers updating rows of a thread safe list, either by calling <code>set</code> directly, one write lock and one
+ * event per update, or through a {@link ListIngest}. Run with <code>-t 1</code>, <code>-t 4</code>, ... to see how
+ * throughput scales with the number of producers.
+ * <p>
+ * The score of <code>ingestPut</code> is the rate producers can hand off mutations; under DROP_OLDEST and
+ * COALESCE_BY_KEY most of them never reach the list. Compare <code>directSet</code> with the rate of applied
+ * mutations instead, reported as the <code>applied</code> secondary result of <code>ingestPut</code>, next to the
+ * rates of <code>dropped</code> and <code>coalesced</code> ones. They are counted once the queue has drained at the
+ * end of every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ListIngestBenchmark {
+
+   private static final int SIZE = 1000;
+
+   @Param({"BLOCK", "DROP_OLDEST", "COALESCE_BY_KEY"})
+   BackpressurePolicy policy;
+
+   /**
+    * The mutations applied, dropped and coalesced during an iteration. Only the first producer to finish the
+    * iteration counts them, the others report zero, so the sum over the producers is the rate of the ingest.
+    */
+   @AuxCounters(AuxCounters.Type.OPERATIONS)
+   @State(Scope.Thread)
+   public static class IngestCounters {
+
+      public long applied;
+      public long dropped;
+      public long coalesced;
+
+      @Setup(Level.Iteration)
+      public void reset() {
+         applied = 0;
+         dropped = 0;
+         coalesced = 0;
+      }
+
+      @TearDown(Level.Iteration)
+      public void collect(ListIngestBenchmark benchmark) throws InterruptedException {
+         benchmark.countInto(this);
+      }
+   }
+
+   private DefaultObservableList<int[]> list;
+   private ListIngest<int[]> ingest;
+   private long appliedAtStart;
+   private long droppedAtStart;
+   private long coalescedAtStart;
+   private boolean counted;
+
+   @Setup
+   public void setUp() {
+      List<int[]> data = IntStream.range(0, SIZE).mapToObj(i -> new int[]{i, 0}).collect(Collectors.toList());
+      list = DefaultObservableList.ofThreadSafe(data);
+      ingest = ListIngest.builder(list).policy(policy).keyedBy(row -> row[0]).build();
+   }
+
+   @Setup(Level.Iteration)
+   public void startIteration() {
+      appliedAtStart = ingest.getAppliedCount();
+      droppedAtStart = ingest.getDroppedCount();
+      coalescedAtStart = ingest.getCoalescedCount();
+      counted = false;
+   }
+
+   synchronized void countInto(IngestCounters counters) throws InterruptedException {
+      if (counted) {
+         return;
+      }
+      counted = true;
+      while (ingest.getQueueDepth() > 0) {
+         Thread.sleep(1);
+      }
+      counters.applied = ingest.getAppliedCount() - appliedAtStart;
+      counters.dropped = ingest.getDroppedCount() - droppedAtStart;
+      counters.coalesced = ingest.getCoalescedCount() - coalescedAtStart;
+   }
+
+   @TearDown
+   public void tearDown() throws InterruptedException {
+      ingest.close();
+   }
+
+   @Benchmark
+   public int[] directSet() {
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      final int key = random.nextInt(SIZE);
+      return list.set(key, new int[]{key, random.nextInt()});
+   }
+
+   @Benchmark
+   public void ingestPut(IngestCounters counters) {
+      final ThreadLocalRandom random = ThreadLocalRandom.current();
+      ingest.put(new int[]{random.nextInt(SIZE), random.nextInt()});
+   }
+}
@@ -0,0 +1,66 @@
+package net.benfro.collections.sandbox;
+
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.GlazedLists;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Swaps a {@link HotSwappablePluggableList} back and forth between two sources of the same size, by copying them
+ * with <code>setSource</code>, or by referencing sources which differ in one percent of their elements with
+ * <code>swapSource</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotSwappablePluggableListBenchmark {
+
+   @Param({"1000", "10000", "100000"})
+   int size;
+
+   private HotSwappablePluggableList<Integer> list;
+   private EventList<Integer> first;
+   private EventList<Integer> second;
+   private boolean toggle;
+   private HotSwappablePluggableList<Integer> swappingList;
+   private EventList<Integer> firstShared;
+   private EventList<Integer> secondShared;
+
+   @Setup
+   public void setUp() {
+      list = new HotSwappablePluggableList<>();
+      first = GlazedLists.eventList(IntStream.range(0, size).boxed().collect(Collectors.toList()));
+      second = GlazedLists.eventList(IntStream.range(size, 2 * size).boxed().collect(Collectors.toList()));
+      list.setSource(first);
+
+      swappingList = new HotSwappablePluggableList<>();
+      firstShared = swappingList.createSourceList();
+      firstShared.addAll(first);
+      secondShared = swappingList.createSourceList();
+      secondShared.addAll(first);
+      for (int i = 0; i < size; i += 100) {
+         secondShared.set(i, -i);
+      }
+      swappingList.swapSource(firstShared);
+   }
+
+   @Benchmark
+   public int setSource() {
+      toggle = !toggle;
+      list.setSource(toggle ? second : first);
+      return list.size();
+   }
+
+   @Benchmark
+   public int swapSource() {
+      toggle = !toggle;
+      swappingList.swapSource(toggle ? secondShared : firstShared);
+      return swappingList.size();
+   }
+}
@@ -0,0 +1,61 @@
+package net.benfro.collections.sandbox;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Select and deselect operations on {@link DefaultMultiSelectableList}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MultiSelectableListBenchmark {
+
+   @Param({"1000", "100000", "1000000"})
+   int size;
+
+   private DefaultMultiSelectableList<Integer> list;
+   private int index;
+
+   @Setup
+   public void setUp() {
+      List<Integer> data = IntStream.range(0, size).boxed().collect(Collectors.toList());
+      list = DefaultMultiSelectableList.of(data);
+   }
+
+   private int nextIndex() {
+      index = (index + 7919) % size;
+      return index;
+   }
+
+   @Benchmark
+   public void selectAndDeselectIndex() {
+      final int i = nextIndex();
+      list.selectIndices(i);
+      list.deselectIndices(i);
+   }
+
+   @Benchmark
+   public boolean isIndexSelected() {
+      return list.isIndexSelected(nextIndex());
+   }
+
+   @Benchmark
+   public void selectAllAndClear() {
+      list.selectAll();
+      list.clearSelected();
+   }
+
+   @Benchmark
+   public void selectAndDeselectHalfRange() {
+      list.selectRange(0, size / 2);
+      list.deselectRange(0, size / 2);
+   }
+}
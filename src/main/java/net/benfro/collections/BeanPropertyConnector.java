@@ -0,0 +1,127 @@
+package net.benfro.collections;
+
+import ca.odell.glazedlists.ObservableElementList;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableSet;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.EventListener;
+import java.util.Set;
+
+/**
+ * An {@link ObservableElementList.Connector} for JavaBeans with <code>addPropertyChangeListener</code> and
+ * <code>removePropertyChangeListener</code> methods, replacing <code>GlazedLists.beanConnector(Class)</code>.
+ * <p>
+ * The two methods are looked up once per bean class and called through cached {@link MethodHandle}s, and one
+ * listener is shared by all beans of the list. When created with property names, changes of any other property are
+ * dropped before they reach the list, so they never cause an update event. A change with a <code>null</code>
+ * property name means that any property may have changed and is always passed on.
+ *
+ * @param <E>
+ */
+public final class BeanPropertyConnector<E> implements ObservableElementList.Connector<E> {
+
+   private static final MethodType LISTENER_METHOD = MethodType.methodType(void.class, PropertyChangeListener.class);
+   private static final MethodType GENERIC_LISTENER_METHOD =
+           MethodType.methodType(void.class, Object.class, PropertyChangeListener.class);
+
+   private static final ClassValue<ListenerMethods> LISTENER_METHODS = new ClassValue<ListenerMethods>() {
+      @Override
+      protected ListenerMethods computeValue(Class<?> type) {
+         return new ListenerMethods(type);
+      }
+   };
+
+   private static final class ListenerMethods {
+      private final MethodHandle add;
+      private final MethodHandle remove;
+
+      ListenerMethods(Class<?> type) {
+         this.add = find(type, "addPropertyChangeListener");
+         this.remove = find(type, "removePropertyChangeListener");
+      }
+
+      private static MethodHandle find(Class<?> type, String name) {
+         try {
+            // Unreflecting an accessible Method also reaches public methods of non-public bean classes
+            Method method = type.getMethod(name, PropertyChangeListener.class);
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method).asType(GENERIC_LISTENER_METHOD);
+         } catch (NoSuchMethodException | IllegalAccessException | SecurityException e) {
+            throw new IllegalArgumentException(type.getName() + " has no public method " + name + LISTENER_METHOD, e);
+         }
+      }
+   }
+
+   /**
+    * Creates a connector passing on only changes of the named properties. Without names, changes of all properties
+    * are passed on.
+    */
+   public static <T> BeanPropertyConnector<T> of(Class<T> beanClass, String... propertyNames) {
+      return new BeanPropertyConnector<>(beanClass, propertyNames.length == 0 ? null : ImmutableSet.copyOf(propertyNames));
+   }
+
+   private final ListenerMethods methods;
+   private final Set<String> propertyNames;
+   private final PropertyChangeListener listener = this::propertyChanged;
+
+   private volatile ObservableElementList<? extends E> list;
+
+   private BeanPropertyConnector(Class<E> beanClass, Set<String> propertyNames) {
+      this.methods = LISTENER_METHODS.get(Preconditions.checkNotNull(beanClass));
+      this.propertyNames = propertyNames;
+   }
+
+   /**
+    * @return the properties whose changes are passed on, or an empty set if all are
+    */
+   public Set<String> getPropertyNames() {
+      return propertyNames == null ? ImmutableSet.of() : propertyNames;
+   }
+
+   @Override
+   public EventListener installListener(E element) {
+      invoke(methods.add, element);
+      return listener;
+   }
+
+   @Override
+   public void uninstallListener(E element, EventListener listener) {
+      invoke(methods.remove, element);
+   }
+
+   @Override
+   public void setObservableElementList(ObservableElementList<? extends E> list) {
+      this.list = list;
+   }
+
+   private void invoke(MethodHandle handle, E element) {
+      if (element == null) {
+         return;
+      }
+      try {
+         handle.invokeExact((Object) element, listener);
+      } catch (RuntimeException | Error e) {
+         throw e;
+      } catch (Throwable t) {
+         throw new IllegalStateException(t);
+      }
+   }
+
+   private void propertyChanged(PropertyChangeEvent event) {
+      ObservableElementList<? extends E> target = list;
+      if (target == null) {
+         return;
+      }
+      String name = event.getPropertyName();
+      if (propertyNames != null && name != null && !propertyNames.contains(name)) {
+         return;
+      }
+      target.elementChanged(event.getSource());
+   }
+}
@@ -0,0 +1,234 @@
+package net.benfro.collections;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ForwardingList;
+import com.google.common.collect.Lists;
+import org.jdesktop.observablecollections.ObservableList;
+import org.jdesktop.observablecollections.ObservableListListener;
+
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An {@link ObservableList} view of a {@link DefaultObservableList} that gathers the changes of the underlying list
+ * for one frame interval and delivers them as one merged change set per frame on the Event Dispatch Thread.
+ * <p>
+ * Repeated updates of the same row between two structural changes are collapsed into one, adjacent inserts and
+ * removals are merged, and inserts that are removed again before the frame ends are netted out. Reads and writes go
+ * straight to the underlying list, so during a frame it may already contain changes that are not yet announced.
+ *
+ * @param <E>
+ */
+public class CoalescingObservableList<E> extends ForwardingList<E> implements ObservableList<E> {
+
+   public static <T> CoalescingObservableList<T> of(DefaultObservableList<T> list, long interval, TimeUnit unit) {
+      CoalescingObservableList<T> coalescingList = new CoalescingObservableList<>(list);
+      coalescingList.start(unit.toMillis(interval));
+      return coalescingList;
+   }
+
+   private class ChangeCollector implements ObservableListListener {
+
+      @Override
+      public void listElementsAdded(ObservableList list, int index, int length) {
+         append(ListChange.added(index, length));
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public void listElementsRemoved(ObservableList list, int index, List oldElements) {
+         append(ListChange.removed(index, new ArrayList<E>(oldElements)));
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public void listElementReplaced(ObservableList list, int index, Object oldElement) {
+         append(ListChange.replaced(index, (E) oldElement));
+      }
+
+      @Override
+      public void listElementPropertyChanged(ObservableList list, int index) {
+         append(ListChange.propertyChanged(index));
+      }
+   }
+
+   private final DefaultObservableList<E> delegate;
+   private final ObservableListListener collector = new ChangeCollector();
+   private final List<ObservableListListener> observableListListeners = Lists.newCopyOnWriteArrayList();
+
+   private final Object pendingLock = new Object();
+   private List<ListChange<E>> pending = new ArrayList<>();
+   private final Map<Integer, Integer> pendingUpdatePositions = new HashMap<>();
+
+   private final AtomicLong receivedChanges = new AtomicLong();
+   private final AtomicLong deliveredChanges = new AtomicLong();
+   private final AtomicLong mergedChanges = new AtomicLong();
+   private final AtomicLong droppedChanges = new AtomicLong();
+
+   private Timer timer;
+
+   CoalescingObservableList(DefaultObservableList<E> delegate) {
+      this.delegate = delegate;
+      this.delegate.addObservableListListener(collector);
+   }
+
+   private void start(long intervalMillis) {
+      Preconditions.checkArgument(intervalMillis > 0, "The frame interval must be at least one millisecond");
+      timer = new Timer((int) intervalMillis, e -> flush());
+      timer.setCoalesce(true);
+      timer.start();
+   }
+
+   /**
+    * Stops the frame timer and detaches from the underlying list. Changes not yet delivered are discarded.
+    */
+   public void dispose() {
+      if (timer != null) {
+         timer.stop();
+      }
+      delegate.removeObservableListListener(collector);
+   }
+
+   @Override
+   protected List<E> delegate() {
+      return delegate;
+   }
+
+   @Override
+   public boolean supportsElementPropertyChanged() {
+      return delegate.supportsElementPropertyChanged();
+   }
+
+   @Override
+   public void addObservableListListener(ObservableListListener observableListListener) {
+      observableListListeners.add(observableListListener);
+   }
+
+   @Override
+   public void removeObservableListListener(ObservableListListener observableListListener) {
+      observableListListeners.remove(observableListListener);
+   }
+
+   /**
+    * @return the number of changes received from the underlying list
+    */
+   public long getReceivedChangeCount() {
+      return receivedChanges.get();
+   }
+
+   /**
+    * @return the number of changes delivered to the listeners, i.e. after merging
+    */
+   public long getDeliveredChangeCount() {
+      return deliveredChanges.get();
+   }
+
+   /**
+    * @return the number of received changes that were merged into an earlier change of the same frame
+    */
+   public long getMergedChangeCount() {
+      return mergedChanges.get();
+   }
+
+   /**
+    * @return the number of received changes that were dropped because an insert and a removal netted out
+    */
+   public long getDroppedChangeCount() {
+      return droppedChanges.get();
+   }
+
+   private void append(ListChange<E> change) {
+      receivedChanges.incrementAndGet();
+      synchronized (pendingLock) {
+         switch (change.getType()) {
+            case ADDED:
+            case REMOVED:
+               pendingUpdatePositions.clear();
+               appendStructural(change);
+               break;
+            case REPLACED:
+            case PROPERTY_CHANGED:
+               appendUpdate(change);
+               break;
+         }
+      }
+   }
+
+   private void appendStructural(ListChange<E> change) {
+      final ListChange<E> last = pending.isEmpty() ? null : pending.get(pending.size() - 1);
+      if (last != null && last.getType() == ListChange.Type.ADDED) {
+         final int lastEnd = last.getIndex() + last.getLength();
+         if (change.getType() == ListChange.Type.ADDED
+                 && change.getIndex() >= last.getIndex() && change.getIndex() <= lastEnd) {
+            pending.set(pending.size() - 1, ListChange.added(last.getIndex(), last.getLength() + change.getLength()));
+            mergedChanges.incrementAndGet();
+            return;
+         }
+         if (change.getType() == ListChange.Type.REMOVED
+                 && change.getIndex() >= last.getIndex() && change.getIndex() + change.getLength() <= lastEnd) {
+            final int remaining = last.getLength() - change.getLength();
+            if (remaining == 0) {
+               pending.remove(pending.size() - 1);
+               droppedChanges.addAndGet(2);
+            } else {
+               pending.set(pending.size() - 1, ListChange.added(last.getIndex(), remaining));
+               droppedChanges.incrementAndGet();
+            }
+            return;
+         }
+      }
+      if (last != null && last.getType() == ListChange.Type.REMOVED
+              && change.getType() == ListChange.Type.REMOVED && change.getIndex() == last.getIndex()) {
+         final List<E> oldElements = new ArrayList<>(last.getOldElements());
+         oldElements.addAll(change.getOldElements());
+         pending.set(pending.size() - 1, ListChange.removed(last.getIndex(), oldElements));
+         mergedChanges.incrementAndGet();
+         return;
+      }
+      pending.add(change);
+   }
+
+   private void appendUpdate(ListChange<E> change) {
+      final ListChange<E> last = pending.isEmpty() ? null : pending.get(pending.size() - 1);
+      if (last != null && last.getType() == ListChange.Type.ADDED
+              && change.getIndex() >= last.getIndex() && change.getIndex() < last.getIndex() + last.getLength()) {
+         mergedChanges.incrementAndGet();
+         return;
+      }
+      final Integer position = pendingUpdatePositions.get(change.getIndex());
+      if (position == null) {
+         pendingUpdatePositions.put(change.getIndex(), pending.size());
+         pending.add(change);
+         return;
+      }
+      if (pending.get(position).getType() == ListChange.Type.PROPERTY_CHANGED
+              && change.getType() == ListChange.Type.REPLACED) {
+         pending.set(position, change);
+      }
+      mergedChanges.incrementAndGet();
+   }
+
+   /**
+    * Delivers the changes gathered since the last flush. Called by the frame timer on the Event Dispatch Thread.
+    */
+   void flush() {
+      final List<ListChange<E>> changes;
+      synchronized (pendingLock) {
+         if (pending.isEmpty()) {
+            return;
+         }
+         changes = pending;
+         pending = new ArrayList<>();
+         pendingUpdatePositions.clear();
+      }
+      deliveredChanges.addAndGet(changes.size());
+      for (ListChange<E> change : changes) {
+         observableListListeners.forEach(l -> change.deliverTo(this, l));
+      }
+   }
+}
@@ -1,20 +1,46 @@
 package net.benfro.collections;
 
+import ca.odell.glazedlists.BasicEventList;
 import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.GlazedLists;
 import ca.odell.glazedlists.ObservableElementList;
+import ca.odell.glazedlists.TransactionList;
 import ca.odell.glazedlists.event.ListEvent;
 import ca.odell.glazedlists.event.ListEventListener;
 import ca.odell.glazedlists.util.concurrent.Lock;
+import com.google.common.base.Equivalence;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
+import net.benfro.collections.columnar.ColumnarEventList;
+import net.benfro.collections.columnar.RecordSchema;
+import net.benfro.collections.columnar.Row;
+import net.benfro.collections.mapped.MappedEventList;
+import net.benfro.collections.mapped.RecordCodec;
+import net.benfro.collections.metrics.ListFlightRecorder;
+import net.benfro.collections.metrics.ListMetrics;
+import net.benfro.collections.paged.PagedDataSource;
+import net.benfro.collections.paged.PagedEventList;
 import org.jdesktop.observablecollections.ObservableList;
 import org.jdesktop.observablecollections.ObservableListListener;
 
+import javax.swing.SwingUtilities;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class DefaultObservableList<E> implements ObservableList<E> {
 
+   /**
+    * Dispatches listener callbacks on the Swing Event Dispatch Thread, see {@link #setDispatchExecutor(Executor)}
+    */
+   public static final Executor EDT_EXECUTOR = SwingUtilities::invokeLater;
+
    public static <T> DefaultObservableList<T> of() {
       return new DefaultObservableList<T>(GlazedLists.eventList(Lists.newArrayList()), false);
    }
@@ -28,92 +54,241 @@ public class DefaultObservableList<E> implements ObservableList<E> {
    }
 
    public static <T> DefaultObservableList<T> ofPropertyAware(List<T> data, Class<T> clazz) {
+      return ofPropertyAware(data, clazz, new String[0]);
+   }
+
+   /**
+    * Creates a list announcing changes of the named bean properties through
+    * {@link ObservableListListener#listElementPropertyChanged(ObservableList, int)}; changes of other properties are
+    * ignored. Without names, changes of all properties are announced. See {@link BeanPropertyConnector}.
+    */
+   public static <T> DefaultObservableList<T> ofPropertyAware(List<T> data, Class<T> clazz, String... propertyNames) {
       EventList<T> eventList = GlazedLists.eventList(data);
-      ObservableElementList<T> observableElementList = new ObservableElementList<>(eventList, GlazedLists.beanConnector(clazz));
+      ObservableElementList<T> observableElementList =
+              new ObservableElementList<>(eventList, BeanPropertyConnector.of(clazz, propertyNames));
       return new DefaultObservableList<T>(observableElementList, true);
    }
 
    public static <T> DefaultObservableList<T> ofThreadSafe(List<T> data) {
       EventList<T> eventList = GlazedLists.eventList(data);
-      return new DefaultObservableList<T>(GlazedLists.threadSafeList(eventList), false);
+      final DefaultObservableList<T> list = new DefaultObservableList<T>(GlazedLists.threadSafeList(eventList), false);
+      list.shareBetweenThreads();
+      return list;
+   }
+
+   /**
+    * Creates a list locking every access like {@link #ofThreadSafe(List)}, but guarded by a
+    * {@link StampedReadWriteLock} so readers can use {@link #readOptimistic(Function)} without taking any lock. Note
+    * that this lock is not upgradable: a thread holding the read lock must not take the write lock.
+    */
+   public static <T> DefaultObservableList<T> ofReadMostly(List<T> data) {
+      EventList<T> eventList = new BasicEventList<>(new StampedReadWriteLock());
+      eventList.addAll(data);
+      final DefaultObservableList<T> list = new DefaultObservableList<T>(GlazedLists.threadSafeList(eventList), false);
+      list.unlockedView = Collections.unmodifiableList(eventList);
+      list.shareBetweenThreads();
+      return list;
+   }
+
+   /**
+    * Creates a list keeping a hash index of its elements, so {@link #contains(Object)}, {@link #indexOf(Object)} and
+    * {@link #lastIndexOf(Object)} need a hash lookup instead of a scan, see {@link ElementIndex} for its cost.
+    * Elements are hashed with the equivalence: {@link Equivalence#equals()} for their own <code>hashCode</code>,
+    * <code>Equivalence.equals().onResultOf(keyExtractor)</code> for a key of theirs, or {@link Equivalence#identity()}
+    * to find only the very same instance.
+    */
+   public static <T> DefaultObservableList<T> ofIndexed(List<T> data, Equivalence<? super T> equivalence) {
+      return new DefaultObservableList<T>(GlazedLists.eventList(data), false, true, equivalence);
+   }
+
+   /**
+    * Creates an empty list of records stored off-heap in a {@link ColumnarEventList}. No copy of the elements is kept
+    * on the heap, so heap use does not depend on the number of rows.
+    */
+   public static DefaultObservableList<Row> ofColumnar(RecordSchema schema) {
+      return new DefaultObservableList<>(new ColumnarEventList(schema), false, false);
+   }
+
+   /**
+    * Opens a list decoding its elements on access from a memory-mapped file, see {@link MappedEventList}. Opening
+    * does not read the file, and no copy of the elements is kept.
+    */
+   public static <T> DefaultObservableList<T> ofMapped(Path dataFile, RecordCodec<T> codec) throws IOException {
+      return new DefaultObservableList<>(MappedEventList.open(dataFile, codec), false, false);
+   }
+
+   /**
+    * Opens a list reading its elements from a memory-mapped file without writing to it, see
+    * {@link MappedEventList#openReadOnly(Path, RecordCodec)}
+    */
+   public static <T> DefaultObservableList<T> ofMappedReadOnly(Path dataFile, RecordCodec<T> codec) throws IOException {
+      return new DefaultObservableList<>(MappedEventList.openReadOnly(dataFile, codec), false, false);
+   }
+
+   /**
+    * Creates a list loading the rows of the source page by page, see {@link PagedEventList}
+    */
+   public static <T> DefaultObservableList<T> ofPaged(PagedDataSource<T> source, int pageSize, T placeholder) {
+      return ofPaged(new PagedEventList<>(source, pageSize, placeholder));
+   }
+
+   /**
+    * Wraps a paged list without keeping a copy of its elements, so no page is loaded before it is accessed
+    */
+   public static <T> DefaultObservableList<T> ofPaged(PagedEventList<T> pagedList) {
+      return new DefaultObservableList<>(pagedList, false, false);
    }
 
    private class ListEventToObservableListListener implements ListEventListener<E> {
-      private List<E> previousState;
+      private final ListEventTranslator<E> translator;
 
-      public ListEventToObservableListListener(EventList<E> input) {
-         this.previousState = makeTempList(input);
+      public ListEventToObservableListListener(ListEventTranslator<E> translator) {
+         this.translator = translator;
       }
 
       @Override
       public void listChanged(final ListEvent<E> listEvent) {
-         int startIdx = -1;
-         int endIdx = -1;
-         boolean firstRun = true;
+         final ListMetrics metrics = DefaultObservableList.this.metrics;
+         final long start = metrics.isEnabled() ? System.nanoTime() : 0L;
+         final Object recording = ListFlightRecorder.get().beginChangeDispatch();
 
-         getWriteLock().lock();
+         // outermost only when the change was not made through this list, e.g. a property change of an element
+         final Lock lock = lockForWrite("deliver");
          try {
-            while (listEvent.nextBlock()) {
-               if (firstRun) {
-                  firstRun = false;
-                  startIdx = listEvent.getBlockStartIndex();
-               }
-               if (!listEvent.hasNext()) {
-                  endIdx = listEvent.getBlockEndIndex();
-               }
-            }
-
-            final int startIdxFinal = startIdx;
-            final int endIdxFinal = endIdx;
-
-            switch (listEvent.getType()) {
-               case ListEvent.INSERT:
-                  observableListListeners.forEach(l -> l.listElementsAdded(DefaultObservableList.this,
-                          startIdxFinal,
-                          endIdxFinal - startIdxFinal + 1));
-                  break;
-               case ListEvent.DELETE:
-                  List<E> deletedItems = Lists.newArrayList(previousState);
-                  deletedItems.removeAll(makeTempList(listEvent.getSourceList()));
-                  observableListListeners.forEach(l -> l.listElementsRemoved(DefaultObservableList.this,
-                          startIdxFinal, deletedItems));
-                  break;
-               case ListEvent.UPDATE:
-                  E newValue = previousState.get(startIdxFinal);
-
-                  if (newValue != listEvent.getSourceList().get(startIdxFinal)) {
-                     observableListListeners.forEach(l -> {
-                        l.listElementReplaced(DefaultObservableList.this, startIdxFinal, newValue);
-                     });
-                  } else {
-                     observableListListeners.forEach(l -> {
-                        l.listElementPropertyChanged(DefaultObservableList.this, startIdxFinal);
-                     });
-                  }
-                  break;
+            final PropertyChangeCoalescer<E> coalescer = propertyChangeCoalescer;
+            final List<ListChange<E>> changes = translator.translate(listEvent);
+            if (coalescer == null) {
+               publish(changes, recording);
+            } else {
+               releaseAndPublish(coalescer, () -> coalescer.hold(changes), recording);
             }
          } finally {
-            getWriteLock().unlock();
+            lock.unlock();
+         }
+
+         if (metrics.isEnabled()) {
+            metrics.eventTranslated(System.nanoTime() - start);
          }
+      }
 
-         previousState = makeTempList(listEvent.getSourceList());
+      /**
+       * Hands the changes to the listeners; called with the write lock held, except for property changes released by
+       * the timer of the coalescer
+       */
+      private void publish(List<ListChange<E>> translated, Object recording) {
+         if (translated.isEmpty()) {
+            return;
+         }
+         final ListMetrics metrics = DefaultObservableList.this.metrics;
+         final List<ListChange<E>> changes = Collections.unmodifiableList(translated);
+         final Executor executor = dispatchExecutor;
+         if (executor == null) {
+            deliver(changes);
+         } else {
+            executor.execute(() -> deliver(changes));
+         }
+         if (metrics.isEnabled()) {
+            changes.forEach(change -> metrics.mutated(mutationOf(change), change.getLength()));
+         }
+         if (recording != null) {
+            record(recording, changes);
+         }
       }
 
-      private ArrayList<E> makeTempList(EventList<E> input) {
-         return Lists.newArrayList(input.subList(0, input.size()));
+      private void deliver(List<ListChange<E>> changes) {
+         final ListMetrics metrics = DefaultObservableList.this.metrics;
+         for (ListChange<E> change : changes) {
+            if (metrics.isEnabled()) {
+               observableListListeners.forEach(l -> {
+                  final long start = System.nanoTime();
+                  change.deliverTo(DefaultObservableList.this, l);
+                  metrics.listenerNotified(l, System.nanoTime() - start);
+               });
+            } else {
+               observableListListeners.forEach(l -> change.deliverTo(DefaultObservableList.this, l));
+            }
+         }
       }
 
+      private void record(Object recording, List<ListChange<E>> changes) {
+         String eventType = null;
+         int elementCount = 0;
+         for (ListChange<E> change : changes) {
+            final String changeType = change.getType() == ListChange.Type.ADDED ? "INSERT"
+                    : change.getType() == ListChange.Type.REMOVED ? "DELETE" : "UPDATE";
+            eventType = eventType == null || eventType.equals(changeType) ? changeType : "MIXED";
+            elementCount += change.getLength();
+         }
+         ListFlightRecorder.get().commitChangeDispatch(recording, listId, eventType, changes.size(), elementCount,
+                 observableListListeners.size());
+      }
+
+      private ListMetrics.Mutation mutationOf(ListChange<E> change) {
+         switch (change.getType()) {
+            case ADDED:
+               return ListMetrics.Mutation.ADDED;
+            case REMOVED:
+               return ListMetrics.Mutation.REMOVED;
+            case REPLACED:
+               return ListMetrics.Mutation.REPLACED;
+            default:
+               return ListMetrics.Mutation.PROPERTY_CHANGED;
+         }
+      }
    }
 
+   private static final AtomicInteger LIST_IDS = new AtomicInteger();
+
    protected final EventList<E> backingList;
+   private final TransactionList<E> transactionList;
+   private final ListEventTranslator<E> translator;
    private final boolean supportsPropertyChange;
+   private final ElementIndex<E> elementIndex;
+   private final ListEventToObservableListListener eventListener;
+   private volatile PropertyChangeCoalescer<E> propertyChangeCoalescer;
    private final List<ObservableListListener> observableListListeners = Lists.newCopyOnWriteArrayList();
+   private volatile Executor dispatchExecutor;
+   private volatile ListMetrics metrics = ListMetrics.NOOP;
+   private volatile Lock measuredReadLock;
+   /**
+    * The list inside the thread safe wrapper of {@link #ofReadMostly(List)}, read without locking by optimistic readers
+    */
+   private List<E> unlockedView;
+   private boolean threadSafe;
+   private volatile RecordedLock writeLock;
+   private volatile String listId = getClass().getSimpleName() + "-" + LIST_IDS.incrementAndGet();
+   private int batchDepth;
 
    protected DefaultObservableList(EventList<E> backingList, boolean supportsPropertyChange) {
+      this(backingList, supportsPropertyChange, true);
+   }
+
+   /**
+    * @param trackPreviousState <code>false</code> if the backing list reports the old value of every deleted and
+    *                           updated element in its events, so no shadow copy of the list needs to be kept
+    */
+   protected DefaultObservableList(EventList<E> backingList, boolean supportsPropertyChange, boolean trackPreviousState) {
+      this(backingList, supportsPropertyChange, trackPreviousState, null);
+   }
+
+   /**
+    * @param indexEquivalence hashes the elements for an index answering <code>indexOf</code> in constant time, or
+    *                         <code>null</code> for no index
+    */
+   protected DefaultObservableList(EventList<E> backingList, boolean supportsPropertyChange, boolean trackPreviousState,
+                                   Equivalence<? super E> indexEquivalence) {
       this.backingList = backingList;
       this.supportsPropertyChange = supportsPropertyChange;
-      ListEventListener<E> listener = new ListEventToObservableListListener(this.backingList);
-      this.backingList.addListEventListener(listener);
+      this.writeLock = new RecordedLock(backingList.getReadWriteLock().writeLock(), this::getListId);
+      // registered ahead of the transaction list, so the index is current when the listeners are notified
+      this.elementIndex = indexEquivalence == null ? null : new ElementIndex<>(backingList, indexEquivalence);
+      if (elementIndex != null) {
+         backingList.addListEventListener(elementIndex);
+      }
+      this.transactionList = new TransactionList<>(backingList, false);
+      this.translator = trackPreviousState ? new ListEventTranslator<>(transactionList) : new ListEventTranslator<>();
+      this.eventListener = new ListEventToObservableListListener(translator);
+      this.transactionList.addListEventListener(eventListener);
    }
 
    @Override
@@ -133,12 +308,17 @@ public class DefaultObservableList<E> implements ObservableList<E> {
 
    @Override
    public boolean contains(Object o) {
-      return backingList.contains(o);
+      return indexOf(o) >= 0;
    }
 
+   /**
+    * For a list {@link #shareBetweenThreads() shared between threads}, iterates over a {@link #snapshot()}, so no lock
+    * is needed and the iterator is read-only. Otherwise the iterator is a live view of the list, to be used while
+    * holding the read lock if other threads write.
+    */
    @Override
    public Iterator<E> iterator() {
-      return backingList.iterator();
+      return threadSafe ? snapshot().iterator() : backingList.iterator();
    }
 
    @Override
@@ -153,12 +333,26 @@ public class DefaultObservableList<E> implements ObservableList<E> {
 
    @Override
    public boolean add(E e) {
-      return backingList.add(e);
+      final Lock lock = lockForMutation("add");
+      try {
+         return backingList.add(e);
+      } finally {
+         if (lock != null) {
+            lock.unlock();
+         }
+      }
    }
 
    @Override
    public boolean remove(Object o) {
-      return backingList.remove(o);
+      final Lock lock = lockForMutation("remove");
+      try {
+         return backingList.remove(o);
+      } finally {
+         if (lock != null) {
+            lock.unlock();
+         }
+      }
    }
 
    @Override
@@ -168,27 +362,62 @@ public class DefaultObservableList<E> implements ObservableList<E> {
 
    @Override
    public boolean addAll(Collection<? extends E> c) {
-      return backingList.addAll(c);
+      final Lock lock = lockForMutation("addAll");
+      try {
+         return backingList.addAll(c);
+      } finally {
+         if (lock != null) {
+            lock.unlock();
+         }
+      }
    }
 
    @Override
    public boolean addAll(int index, Collection<? extends E> c) {
-      return backingList.addAll(index, c);
+      final Lock lock = lockForMutation("addAll");
+      try {
+         return backingList.addAll(index, c);
+      } finally {
+         if (lock != null) {
+            lock.unlock();
+         }
+      }
    }
 
    @Override
    public boolean removeAll(Collection<?> c) {
-      return backingList.removeAll(c);
+      final Lock lock = lockForMutation("removeAll");
+      try {
+         return backingList.removeAll(c);
+      } finally {
+         if (lock != null) {
+            lock.unlock();
+         }
+      }
    }
 
    @Override
    public boolean retainAll(Collection<?> c) {
-      return backingList.retainAll(c);
+      final Lock lock = lockForMutation("retainAll");
+      try {
+         return backingList.retainAll(c);
+      } finally {
+         if (lock != null) {
+            lock.unlock();
+         }
+      }
    }
 
    @Override
    public void clear() {
-      backingList.clear();
+      final Lock lock = lockForMutation("clear");
+      try {
+         backingList.clear();
+      } finally {
+         if (lock != null) {
+            lock.unlock();
+         }
+      }
    }
 
    @Override
@@ -198,70 +427,429 @@ public class DefaultObservableList<E> implements ObservableList<E> {
 
    @Override
    public E set(int index, E element) {
-      return backingList.set(index, element);
+      final Lock lock = lockForMutation("set");
+      try {
+         return backingList.set(index, element);
+      } finally {
+         if (lock != null) {
+            lock.unlock();
+         }
+      }
    }
 
    @Override
    public void add(int index, E element) {
-      backingList.add(index, element);
+      final Lock lock = lockForMutation("add");
+      try {
+         backingList.add(index, element);
+      } finally {
+         if (lock != null) {
+            lock.unlock();
+         }
+      }
    }
 
    @Override
    public E remove(int index) {
-      return backingList.remove(index);
+      final Lock lock = lockForMutation("remove");
+      try {
+         return backingList.remove(index);
+      } finally {
+         if (lock != null) {
+            lock.unlock();
+         }
+      }
    }
 
    @Override
    public int indexOf(Object o) {
-      return backingList.indexOf(o);
+      return elementIndex != null ? elementIndex.indexOf(o) : backingList.indexOf(o);
    }
 
    @Override
    public int lastIndexOf(Object o) {
-      return backingList.lastIndexOf(o);
+      return elementIndex != null ? elementIndex.lastIndexOf(o) : backingList.lastIndexOf(o);
    }
 
    @Override
    public ListIterator<E> listIterator() {
-      return backingList.listIterator();
+      return threadSafe ? snapshot().listIterator() : backingList.listIterator();
    }
 
    @Override
    public ListIterator<E> listIterator(int index) {
-      return backingList.listIterator(index);
+      return threadSafe ? snapshot().listIterator(index) : backingList.listIterator(index);
    }
 
+   /**
+    * A live, writable view of the range, also for thread safe lists; hold the read lock while reading it if other
+    * threads write, or read a range of a {@link #snapshot()} instead.
+    */
    @Override
    public List<E> subList(int fromIndex, int toIndex) {
       return backingList.subList(fromIndex, toIndex);
    }
 
+   /**
+    * Returns an immutable view of the list as it is now, to read without holding a lock while writers go on. The
+    * snapshot shares the copy of the elements kept to translate events, so taking it is O(1), but the first change
+    * after it copies that whole copy, O(n), once for all snapshots taken since the previous change. Taking a snapshot
+    * between every pair of changes thus costs a full copy per change. Inside {@link #beginChanges()} the changes made
+    * so far are not published yet, so the elements are copied right away instead.
+    * <p>
+    * Iterate over a snapshot rather than the list itself to read without holding the lock: the sub lists, and the
+    * iterators of lists not {@link #shareBetweenThreads() shared between threads}, are live views of it.
+    *
+    * @throws UnsupportedOperationException for lists created without that copy, like
+    *                                       {@link #ofColumnar(RecordSchema)}, {@link #ofPaged(PagedEventList)} and
+    *                                       {@link #ofMapped(Path, RecordCodec)}: their elements are views of storage
+    *                                       that is loaded or decoded on access, so a copy would neither be cheap nor
+    *                                       stay unchanged
+    */
+   public ListSnapshot<E> snapshot() {
+      if (!translator.tracksPreviousState()) {
+         throw new UnsupportedOperationException("Snapshots need a list keeping a copy of its elements");
+      }
+      final Lock lock = getReadLock();
+      lock.lock();
+      try {
+         final ListSnapshot<E> snapshot = batchDepth == 0 ? translator.snapshot() : null;
+         return snapshot != null ? snapshot : new ListSnapshot<>(new ArrayList<>(backingList), translator.getVersion());
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Marks a list shared between threads, called by the thread safe factories before the list is shared. Its
+    * mutators then take the write lock, so their holds show in flight recordings, and {@link #iterator()} and
+    * {@link #listIterator()} iterate over snapshots, so the list can be iterated without holding the read lock and
+    * without {@link ConcurrentModificationException}. Each iterator makes the next change copy the list, see
+    * {@link #snapshot()}.
+    */
+   protected final void shareBetweenThreads() {
+      Preconditions.checkState(translator.tracksPreviousState(), "Snapshots need a list keeping a copy of its elements");
+      threadSafe = true;
+   }
+
+   /**
+    * Takes the write lock for a mutation of a list {@link #shareBetweenThreads() shared between threads}, or while
+    * write lock holds are recorded. Other lists are not meant to be written by several threads, so their mutations
+    * go straight to the backing list without a lock round trip.
+    *
+    * @return the lock taken, to be released, or <code>null</code> if none was taken
+    */
+   private Lock lockForMutation(String operation) {
+      if (!threadSafe && !ListFlightRecorder.get().recordsWriteLockHolds()) {
+         return null;
+      }
+      return lockForWrite(operation);
+   }
+
+   /**
+    * @return the write lock, recording every hold as a flight recorder event, see {@link RecordedLock}
+    */
    public Lock getWriteLock() {
-      return backingList.getReadWriteLock().writeLock();
+      return writeLock;
+   }
+
+   /**
+    * Takes the write lock, naming the hold in flight recordings if it is the outermost one of the thread
+    *
+    * @return the lock taken, to be released
+    */
+   protected final Lock lockForWrite(String operation) {
+      final RecordedLock lock = writeLock;
+      lock.lock(operation);
+      return lock;
    }
 
    public Lock getReadLock() {
-      return backingList.getReadWriteLock().readLock();
+      final Lock measured = measuredReadLock;
+      return measured != null ? measured : backingList.getReadWriteLock().readLock();
+   }
+
+   /**
+    * @return the id identifying this list in flight recordings
+    */
+   public String getListId() {
+      return listId;
+   }
+
+   /**
+    * @param listId a name identifying this list in flight recordings, by default its class name and a sequence number
+    */
+   public void setListId(String listId) {
+      this.listId = Objects.requireNonNull(listId);
+   }
+
+   /**
+    * Reports mutation counts, event translation time, listener latencies and the wait and hold times of the locks
+    * handed out by {@link #getReadLock()} and {@link #getWriteLock()} to the given sink. Locking done internally by
+    * GlazedLists is not measured. Must be set before the list is shared between threads: the locks handed out are
+    * replaced, so a lock taken before must be released through the instance it was taken from.
+    *
+    * @param metrics the sink, or {@link ListMetrics#NOOP} to measure nothing
+    * @throws IllegalStateException if the read or write lock is held, by any thread
+    */
+   public void setMetrics(ListMetrics metrics) {
+      Objects.requireNonNull(metrics);
+      final Lock rawWriteLock = backingList.getReadWriteLock().writeLock();
+      if (writeLock.isHeldByCurrentThread() || !rawWriteLock.tryLock()) {
+         throw new IllegalStateException("Metrics must be set before the list is shared, not while it is locked");
+      }
+      try {
+         this.metrics = metrics;
+         if (metrics.isEnabled()) {
+            measuredReadLock = new MeasuredLock(backingList.getReadWriteLock().readLock(), ListMetrics.LockType.READ,
+                    metrics);
+            writeLock = new RecordedLock(new MeasuredLock(rawWriteLock, ListMetrics.LockType.WRITE, metrics),
+                    this::getListId);
+         } else {
+            measuredReadLock = null;
+            writeLock = new RecordedLock(rawWriteLock, this::getListId);
+         }
+      } finally {
+         rawWriteLock.unlock();
+      }
    }
 
    public E readWithLock(Function<DefaultObservableList<E>, E> f) {
-      getReadLock().lock();
+      final Lock lock = getReadLock();
+      lock.lock();
       try {
          return f.apply(this);
       } finally {
-         getReadLock().unlock();
+         lock.unlock();
       }
    }
 
    public List<E> readListWithLock(Function<DefaultObservableList<E>, List<E>> f) {
-      getReadLock().lock();
+      final Lock lock = getReadLock();
+      lock.lock();
       try {
          return f.apply(this);
       } finally {
-         getReadLock().unlock();
+         lock.unlock();
       }
    }
 
+   /**
+    * Reads without taking any lock when the list was created by {@link #ofReadMostly(List)}. The function is given
+    * an unlocked read-only view of the elements and its result is returned if no writer took the lock meanwhile;
+    * otherwise, and for other lists, it runs again under the read lock. The function may thus see the list while it
+    * is being modified, must not modify anything itself and should be short; exceptions thrown by an invalidated run
+    * are discarded.
+    */
+   public <R> R readOptimistic(Function<? super List<E>, R> f) {
+      final List<E> view = unlockedView;
+      if (view != null && measuredReadLock == null) {
+         final StampedReadWriteLock stampedLock = (StampedReadWriteLock) backingList.getReadWriteLock();
+         final long stamp = stampedLock.tryOptimisticRead();
+         if (stamp != 0) {
+            try {
+               final R result = f.apply(view);
+               if (stampedLock.validate(stamp)) {
+                  return result;
+               }
+            } catch (RuntimeException e) {
+               if (stampedLock.validate(stamp)) {
+                  throw e;
+               }
+            }
+         }
+      }
+      final Lock lock = getReadLock();
+      lock.lock();
+      try {
+         return f.apply(view != null ? view : this);
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Starts keeping a hash index from the keys of the elements to their positions, so the element with a key is found
+    * without a scan, see {@link ElementIndex} for its cost. The index follows all changes of the list, also inside a
+    * batch, until it is closed.
+    */
+   public KeyIndex<E> indexBy(Function<? super E, ?> keyExtractor) {
+      final Lock lock = getWriteLock();
+      lock.lock();
+      try {
+         final ElementIndex<E> index =
+                 new ElementIndex<>(backingList, Equivalence.equals().onResultOf(keyExtractor::apply));
+         backingList.addListEventListener(index);
+         return index;
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Takes the write lock and starts collecting all following changes into one event, which is not published
+    * until the matching {@link #commitChanges()}. Inserts that are deleted again, and repeated updates of the same
+    * element, are netted out by GlazedLists so the listeners only get the coalesced changes. Calls may be nested.
+    */
+   public void beginChanges() {
+      lockForWrite("batch");
+      batchDepth++;
+      transactionList.beginEvent(true);
+   }
+
+   /**
+    * Publishes the changes collected since the matching {@link #beginChanges()} and releases the write lock. The lock
+    * is not replaced meanwhile, as {@link #setMetrics(ListMetrics)} refuses to while it is held.
+    */
+   public void commitChanges() {
+      try {
+         transactionList.commitEvent();
+      } finally {
+         if (--batchDepth == 0) {
+            if (propertyChangeCoalescer != null) {
+               flushPropertyChanges();
+            }
+         }
+         getWriteLock().unlock();
+      }
+   }
+
+   /**
+    * Applies all changes made by the given function under one write lock and notifies the listeners once, with
+    * the coalesced changes. Changes made before an exception is thrown are kept and published.
+    *
+    * @param changes a function mutating the list it is given
+    * @see #beginChanges()
+    */
+   public void batch(Consumer<? super List<E>> changes) {
+      beginChanges();
+      try {
+         changes.accept(this);
+      } finally {
+         commitChanges();
+      }
+   }
+
+   /**
+    * Replaces the elements by the new ones with as few changes as possible, published as one event, see
+    * {@link ListDiff}. Elements equal to one in the new data stay in place, so only rows that differ are reported
+    * and the selection of a {@link DefaultSelectableList} survives unless its element is removed. An element without
+    * a match counts as removed even when a new element is put in its place.
+    */
+   public void replaceContents(List<? extends E> newData) {
+      replaceContents(newData, Equivalence.equals());
+   }
+
+   /**
+    * Replaces the elements by the new ones, matching old and new elements by the key. A matched element which is
+    * not equal to its new version is replaced in place.
+    */
+   public void replaceContents(List<? extends E> newData, Function<? super E, ?> keyExtractor) {
+      replaceContents(newData, Equivalence.equals().onResultOf(keyExtractor::apply));
+   }
+
+   private void replaceContents(List<? extends E> newData, Equivalence<? super E> equivalence) {
+      beginChanges();
+      try {
+         final List<E> oldData = new ArrayList<>(backingList);
+         final int[] oldToNew = ListDiff.matches(oldData, newData, equivalence);
+         replacingContents(oldToNew);
+         ListDiff.replay(oldData, newData, oldToNew, ListDiff.applyingTo(backingList));
+      } finally {
+         commitChanges();
+      }
+   }
+
+   /**
+    * Called by {@link #replaceContents(List)} with the write lock held, before the elements are replaced
+    *
+    * @param oldToNew for every current index the new index of the element it is matched with, or -1 if it goes away,
+    *                 see {@link ListDiff#matches(List, List, Equivalence)}
+    */
+   protected void replacingContents(int[] oldToNew) {
+   }
+
+   /**
+    * Holds back property changes of the elements and announces them as one
+    * {@link ObservableListListener#listElementPropertyChanged(ObservableList, int)} per changed element, so a bean
+    * changing several properties in one burst is reported once. The held back changes are delivered at the end of
+    * the outermost {@link #beginChanges()} batch, at {@link #flushPropertyChanges()}, before any other change, and
+    * with the first change made after the delay. Without such a change they are delivered after the delay from the
+    * Event Dispatch Thread, so listeners are called there, or through the dispatch executor if one is set. That late
+    * delivery does not take the write lock, so a listener may see the list in a later state, as with an executor.
+    *
+    * @param delay how long a property change may be held back, or 0 to announce every property change at once again
+    */
+   public void setPropertyChangeCoalescing(long delay, TimeUnit unit) {
+      Preconditions.checkArgument(delay >= 0, "delay must not be negative: %s", delay);
+      final Lock lock = getWriteLock();
+      lock.lock();
+      try {
+         flushPropertyChanges();
+         propertyChangeCoalescer = delay == 0 ? null : new PropertyChangeCoalescer<>(delay, unit,
+                 this::flushDelayedPropertyChanges);
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Announces the property changes held back since the last flush, see
+    * {@link #setPropertyChangeCoalescing(long, TimeUnit)}
+    */
+   public void flushPropertyChanges() {
+      final Lock lock = lockForWrite("flushPropertyChanges");
+      try {
+         final PropertyChangeCoalescer<E> coalescer = propertyChangeCoalescer;
+         if (coalescer != null) {
+            releaseAndPublish(coalescer, coalescer::release, ListFlightRecorder.get().beginChangeDispatch());
+         }
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Run by the timer of the coalescer on the Event Dispatch Thread. The held back changes are released under the
+    * monitor of the coalescer only, so the EDT never waits for the list lock.
+    */
+   private void flushDelayedPropertyChanges() {
+      final PropertyChangeCoalescer<E> coalescer = propertyChangeCoalescer;
+      if (coalescer == null) {
+         return;
+      }
+      releaseAndPublish(coalescer, coalescer::release, ListFlightRecorder.get().beginChangeDispatch());
+   }
+
+   /**
+    * Publishes the changes released from the coalescer. With a dispatch executor, both happen inside the monitor of
+    * the coalescer, so the executor gets the changes in the order they were released, also those released by the
+    * timer without the list lock. Without one, listeners are called outside of it, as they may take the list lock.
+    */
+   private void releaseAndPublish(PropertyChangeCoalescer<E> coalescer, Supplier<List<ListChange<E>>> release,
+                                  Object recording) {
+      if (dispatchExecutor == null) {
+         eventListener.publish(release.get(), recording);
+         return;
+      }
+      synchronized (coalescer) {
+         eventListener.publish(release.get(), recording);
+      }
+   }
+
+   /**
+    * Delivers the listener callbacks through the given executor instead of on the mutating thread while it holds
+    * the write lock. The changes of every event are captured under the lock and handed to the listeners in order,
+    * but outside of it, so slow listeners no longer hold up writers. Note that a listener may then see the list in a
+    * later state than the one the change describes.
+    *
+    * @param executor the executor to deliver on, e.g. {@link #EDT_EXECUTOR}, or <code>null</code> to deliver
+    *                 synchronously under the write lock again
+    */
+   public void setDispatchExecutor(Executor executor) {
+      this.dispatchExecutor = executor == null ? null : new SerialExecutor(executor);
+   }
+
    @Override
    public void addObservableListListener(ObservableListListener observableListListener) {
       observableListListeners.add(observableListListener);
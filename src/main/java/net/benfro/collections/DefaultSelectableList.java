@@ -1,67 +1,175 @@
 package net.benfro.collections;
 
 import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.GlazedLists;
+import ca.odell.glazedlists.event.ListEvent;
+import ca.odell.glazedlists.event.ListEventListener;
+import ca.odell.glazedlists.util.concurrent.Lock;
+import com.google.common.base.Equivalence;
 import com.google.common.base.Preconditions;
+import net.benfro.collections.paged.PagedEventList;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
-import java.util.Objects;
+import java.util.List;
 
 public class DefaultSelectableList<E> extends DefaultObservableList<E> implements SelectableList<E> {
 
+   /**
+    * Keeps the selected index in step with the backing list. The index is shifted by inserts and deletes before
+    * it, the selection is cleared when the selected element is deleted and follows the element when it is replaced.
+    */
+   private class SelectionTracker implements ListEventListener<E> {
+
+      @Override
+      public void listChanged(ListEvent<E> listEvent) {
+         if (selectedIndex < 0) {
+            return;
+         }
+
+         int index = selectedIndex;
+         if (listEvent.isReordering()) {
+            index = reorderedIndex(listEvent.getReorderMap(), index);
+         } else {
+            while (index >= 0 && listEvent.next()) {
+               final int changeIndex = listEvent.getIndex();
+               switch (listEvent.getType()) {
+                  case ListEvent.INSERT:
+                     if (changeIndex <= index) {
+                        index++;
+                     }
+                     break;
+                  case ListEvent.DELETE:
+                     if (changeIndex < index) {
+                        index--;
+                     } else if (changeIndex == index) {
+                        index = -1;
+                     }
+                     break;
+               }
+            }
+         }
+
+         if (index < 0) {
+            select(-1, null);
+         } else {
+            final E element = listEvent.getSourceList().get(index);
+            if (element != selectedElement) {
+               select(index, element);
+            } else {
+               selectedIndex = index;
+            }
+         }
+      }
+
+      private int reorderedIndex(int[] reorderMap, int oldIndex) {
+         for (int newIndex = 0; newIndex < reorderMap.length; newIndex++) {
+            if (reorderMap[newIndex] == oldIndex) {
+               return newIndex;
+            }
+         }
+         return -1;
+      }
+   }
+
    private final PropertyChangeSupport support = new PropertyChangeSupport(this);
    private E selectedElement;
+   private int selectedIndex = -1;
+
+   /**
+    * Wraps a paged list without keeping a copy of its elements, see {@link DefaultObservableList#ofPaged(PagedEventList)}.
+    * Select rows by index; selecting an element searches the whole list and so loads every page.
+    */
+   public static <T> DefaultSelectableList<T> ofPaged(PagedEventList<T> pagedList) {
+      return new DefaultSelectableList<>(pagedList, false);
+   }
+
+   /**
+    * Creates a list keeping a hash index of its elements, so selecting an element takes constant time, see
+    * {@link DefaultObservableList#ofIndexed(List, Equivalence)}
+    */
+   public static <T> DefaultSelectableList<T> ofIndexed(List<T> data, Equivalence<? super T> equivalence) {
+      return new DefaultSelectableList<>(GlazedLists.eventList(data), true, equivalence);
+   }
 
    protected DefaultSelectableList(EventList<E> backingList) {
-      super(backingList, false);
+      this(backingList, true);
+   }
+
+   protected DefaultSelectableList(EventList<E> backingList, boolean trackPreviousState) {
+      this(backingList, trackPreviousState, null);
+   }
+
+   protected DefaultSelectableList(EventList<E> backingList, boolean trackPreviousState, Equivalence<? super E> indexEquivalence) {
+      super(backingList, false, trackPreviousState, indexEquivalence);
+      backingList.addListEventListener(new SelectionTracker());
    }
 
    @Override
    public E getSelectedElement() {
-      getReadLock().lock();
+      final Lock lock = getReadLock();
+      lock.lock();
       try {
          return selectedElement;
       } finally {
-         getReadLock().unlock();
+         lock.unlock();
       }
    }
 
    @Override
    public void setSelectedElement(E element) {
-      getWriteLock().lock();
-      Preconditions.checkArgument(contains(element), "The given argument is not in the selectable range");
+      final Lock lock = lockForWrite("setSelectedElement");
       try {
-         final E old = this.selectedElement;
-         this.selectedElement = element;
-         support.firePropertyChange(SELECTED_ELEMENT_PROPERTY, old, element);
+         final int index = indexOf(element);
+         Preconditions.checkArgument(index >= 0, "The given argument is not in the selectable range");
+         select(index, element);
       } finally {
-         getWriteLock().unlock();
+         lock.unlock();
       }
    }
 
    @Override
    public void setSelectedIndex(int index) {
-      setSelectedElement(get(index));
+      final Lock lock = lockForWrite("setSelectedIndex");
+      try {
+         select(index, get(index));
+      } finally {
+         lock.unlock();
+      }
+   }
+
+   /**
+    * Clears the selection if the selected element has no match in the new contents, even if a new element is put in
+    * its place, which the selection would otherwise follow
+    */
+   @Override
+   protected void replacingContents(int[] oldToNew) {
+      if (selectedIndex >= 0 && oldToNew[selectedIndex] < 0) {
+         select(-1, null);
+      }
+   }
+
+   private void select(int index, E element) {
+      final E old = this.selectedElement;
+      this.selectedElement = element;
+      this.selectedIndex = index;
+      support.firePropertyChange(SELECTED_ELEMENT_PROPERTY, old, element);
    }
 
    @Override
    public int getSelectedIndex() {
-      getReadLock().lock();
+      final Lock lock = getReadLock();
+      lock.lock();
       try {
-         if (isElementSelected()) {
-            return backingList.indexOf(selectedElement);
-         } else {
-            return -1;
-         }
+         return selectedIndex;
       } finally {
-         getReadLock().unlock();
+         lock.unlock();
       }
-
    }
 
    @Override
    public boolean isElementSelected() {
-      return Objects.nonNull(selectedElement);
+      return selectedIndex >= 0;
    }
 
    public void addPropertyChangeListener(PropertyChangeListener listener) {
@@ -0,0 +1,361 @@
+package net.benfro.collections;
+
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.event.ListEvent;
+import ca.odell.glazedlists.event.ListEventListener;
+import com.google.common.base.Equivalence;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A hash index from the elements of a list to their positions, answering <code>indexOf</code> and
+ * <code>lastIndexOf</code> with one hash lookup. Elements are hashed by an {@link Equivalence}; the candidates found
+ * are confirmed with <code>equals</code>, so the answers are the ones of the list itself except for
+ * {@link Equivalence#identity()}, which only finds the very same instance.
+ * <p>
+ * Positions are not stored but kept implicitly by a node per element in a treap ordered like the list, with subtree
+ * sizes, so an insert or removal anywhere shifts all following positions at once. Every change is applied as it
+ * happens in O(log n), and a lookup costs O(log n) per candidate to read its position. The index holds a node and a
+ * key per element and a map entry per distinct key, roughly 100-120 bytes per element on a 64 bit JVM.
+ *
+ * @param <E>
+ */
+final class ElementIndex<E> implements ListEventListener<E>, KeyIndex<E> {
+
+   private static final class Node<E> {
+      private Equivalence.Wrapper<E> key;
+      private final int priority = ThreadLocalRandom.current().nextInt();
+      private Node<E> left;
+      private Node<E> right;
+      private Node<E> parent;
+      private int size = 1;
+
+      Node(Equivalence.Wrapper<E> key) {
+         this.key = key;
+      }
+   }
+
+   /**
+    * The nodes of the elements with one key, in list order. Shifts never change their order, so it only needs to be
+    * kept on insert.
+    */
+   private final class Occurrences {
+      private Node<E>[] nodes = newNodes(1);
+      private int size;
+
+      void add(Node<E> node) {
+         final int at = -search(positionOf(node)) - 1;
+         if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+         }
+         System.arraycopy(nodes, at, nodes, at + 1, size - at);
+         nodes[at] = node;
+         size++;
+      }
+
+      void remove(Node<E> node) {
+         final int at = search(positionOf(node));
+         System.arraycopy(nodes, at + 1, nodes, at, size - at - 1);
+         nodes[--size] = null;
+      }
+
+      private int search(int position) {
+         int low = 0;
+         int high = size - 1;
+         while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int middlePosition = positionOf(nodes[middle]);
+            if (middlePosition < position) {
+               low = middle + 1;
+            } else if (middlePosition > position) {
+               high = middle - 1;
+            } else {
+               return middle;
+            }
+         }
+         return -(low + 1);
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private static <E> Node<E>[] newNodes(int length) {
+      return (Node<E>[]) new Node<?>[length];
+   }
+
+   private final EventList<E> source;
+   private final Equivalence<? super E> equivalence;
+   private final Map<Equivalence.Wrapper<E>, Occurrences> occurrences = new HashMap<>();
+   private Node<E> root;
+   private Node<E> splitLeft;
+   private Node<E> splitRight;
+
+   ElementIndex(EventList<E> source, Equivalence<? super E> equivalence) {
+      this.source = source;
+      this.equivalence = equivalence;
+      rebuild(source);
+   }
+
+   @Override
+   public synchronized void listChanged(ListEvent<E> listEvent) {
+      final EventList<E> source = listEvent.getSourceList();
+      if (listEvent.isReordering()) {
+         rebuild(source);
+         return;
+      }
+      while (listEvent.next()) {
+         final int index = listEvent.getIndex();
+         switch (listEvent.getType()) {
+            case ListEvent.INSERT: {
+               final Node<E> node = new Node<>(equivalence.wrap(source.get(index)));
+               split(root, index);
+               final Node<E> right = splitRight;
+               root = detach(merge(merge(splitLeft, node), right));
+               occurrencesOf(node.key).add(node);
+               break;
+            }
+            case ListEvent.DELETE: {
+               final Node<E> node = nodeAt(index);
+               removeOccurrence(node);
+               split(root, index);
+               final Node<E> left = splitLeft;
+               split(splitRight, 1);
+               root = detach(merge(left, splitRight));
+               break;
+            }
+            case ListEvent.UPDATE: {
+               final Node<E> node = nodeAt(index);
+               final Equivalence.Wrapper<E> key = equivalence.wrap(source.get(index));
+               if (key.equals(node.key)) {
+                  node.key = key;
+               } else {
+                  removeOccurrence(node);
+                  node.key = key;
+                  occurrencesOf(key).add(node);
+               }
+               break;
+            }
+         }
+      }
+   }
+
+   synchronized int indexOf(Object o) {
+      final Occurrences candidates = candidates(o);
+      if (candidates != null) {
+         for (int i = 0; i < candidates.size; i++) {
+            if (matches(candidates.nodes[i], o)) {
+               return positionOf(candidates.nodes[i]);
+            }
+         }
+      }
+      return -1;
+   }
+
+   synchronized int lastIndexOf(Object o) {
+      final Occurrences candidates = candidates(o);
+      if (candidates != null) {
+         for (int i = candidates.size - 1; i >= 0; i--) {
+            if (matches(candidates.nodes[i], o)) {
+               return positionOf(candidates.nodes[i]);
+            }
+         }
+      }
+      return -1;
+   }
+
+   /**
+    * @return the position of the first element equivalent to the given one, without confirming it is equal
+    */
+   @Override
+   public synchronized int indexOfKey(E element) {
+      final Occurrences candidates = occurrences.get(equivalence.wrap(element));
+      return candidates == null ? -1 : positionOf(candidates.nodes[0]);
+   }
+
+   @Override
+   public void close() {
+      source.getReadWriteLock().writeLock().lock();
+      try {
+         source.removeListEventListener(this);
+      } finally {
+         source.getReadWriteLock().writeLock().unlock();
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private Occurrences candidates(Object o) {
+      try {
+         return occurrences.get(equivalence.wrap((E) o));
+      } catch (ClassCastException e) {
+         return null;
+      }
+   }
+
+   private static boolean matches(Node<?> node, Object o) {
+      return Objects.equals(node.key.get(), o);
+   }
+
+   private Occurrences occurrencesOf(Equivalence.Wrapper<E> key) {
+      return occurrences.computeIfAbsent(key, k -> new Occurrences());
+   }
+
+   private void removeOccurrence(Node<E> node) {
+      final Occurrences keyOccurrences = occurrences.get(node.key);
+      keyOccurrences.remove(node);
+      if (keyOccurrences.size == 0) {
+         occurrences.remove(node.key);
+      }
+   }
+
+   /**
+    * Builds the treap in O(n) as the Cartesian tree of the priorities of the elements in list order
+    */
+   private void rebuild(EventList<E> source) {
+      occurrences.clear();
+      final Deque<Node<E>> rightSpine = new ArrayDeque<>();
+      for (E element : source) {
+         final Node<E> node = new Node<>(equivalence.wrap(element));
+         Node<E> last = null;
+         while (!rightSpine.isEmpty() && rightSpine.peek().priority < node.priority) {
+            last = rightSpine.pop();
+         }
+         node.left = last;
+         if (!rightSpine.isEmpty()) {
+            rightSpine.peek().right = node;
+         }
+         rightSpine.push(node);
+      }
+      root = rightSpine.isEmpty() ? null : rightSpine.peekLast();
+      if (root != null) {
+         resize(root);
+         root.parent = null;
+      }
+      // keys are added in list order, so every occurrence is appended
+      for (Node<E> node = first(root); node != null; node = successor(node)) {
+         final Occurrences keyOccurrences = occurrencesOf(node.key);
+         if (keyOccurrences.size == keyOccurrences.nodes.length) {
+            keyOccurrences.nodes = Arrays.copyOf(keyOccurrences.nodes, keyOccurrences.size * 2);
+         }
+         keyOccurrences.nodes[keyOccurrences.size++] = node;
+      }
+   }
+
+   private void resize(Node<E> node) {
+      if (node.left != null) {
+         resize(node.left);
+      }
+      if (node.right != null) {
+         resize(node.right);
+      }
+      update(node);
+   }
+
+   private static <E> Node<E> first(Node<E> node) {
+      while (node != null && node.left != null) {
+         node = node.left;
+      }
+      return node;
+   }
+
+   private static <E> Node<E> successor(Node<E> node) {
+      if (node.right != null) {
+         return first(node.right);
+      }
+      while (node.parent != null && node.parent.right == node) {
+         node = node.parent;
+      }
+      return node.parent;
+   }
+
+   private static int size(Node<?> node) {
+      return node == null ? 0 : node.size;
+   }
+
+   private static <E> void update(Node<E> node) {
+      node.size = 1 + size(node.left) + size(node.right);
+      if (node.left != null) {
+         node.left.parent = node;
+      }
+      if (node.right != null) {
+         node.right.parent = node;
+      }
+   }
+
+   private static <E> Node<E> detach(Node<E> node) {
+      if (node != null) {
+         node.parent = null;
+      }
+      return node;
+   }
+
+   private Node<E> nodeAt(int index) {
+      Node<E> node = root;
+      while (true) {
+         final int leftSize = size(node.left);
+         if (index < leftSize) {
+            node = node.left;
+         } else if (index > leftSize) {
+            index -= leftSize + 1;
+            node = node.right;
+         } else {
+            return node;
+         }
+      }
+   }
+
+   private static int positionOf(Node<?> node) {
+      int position = size(node.left);
+      while (node.parent != null) {
+         if (node.parent.right == node) {
+            position += size(node.parent.left) + 1;
+         }
+         node = node.parent;
+      }
+      return position;
+   }
+
+   /**
+    * Splits the tree into the first <code>count</code> nodes, left in {@link #splitLeft}, and the rest, left in
+    * {@link #splitRight}
+    */
+   private void split(Node<E> node, int count) {
+      if (node == null) {
+         splitLeft = null;
+         splitRight = null;
+      } else if (size(node.left) >= count) {
+         split(node.left, count);
+         node.left = splitRight;
+         update(node);
+         splitRight = node;
+      } else {
+         split(node.right, count - size(node.left) - 1);
+         node.right = splitLeft;
+         update(node);
+         splitLeft = node;
+      }
+      detach(splitLeft);
+      detach(splitRight);
+   }
+
+   private static <E> Node<E> merge(Node<E> left, Node<E> right) {
+      if (left == null) {
+         return right;
+      }
+      if (right == null) {
+         return left;
+      }
+      if (left.priority > right.priority) {
+         left.right = merge(left.right, right);
+         update(left);
+         return left;
+      }
+      right.left = merge(left, right.left);
+      update(right);
+      return right;
+   }
+}
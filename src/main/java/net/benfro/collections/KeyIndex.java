@@ -0,0 +1,23 @@
+package net.benfro.collections;
+
+import java.util.function.Function;
+
+/**
+ * A hash index from keys to the positions of the elements of a {@link DefaultObservableList}, following every change
+ * of the list, see {@link DefaultObservableList#indexBy(Function)}
+ *
+ * @param <E>
+ */
+public interface KeyIndex<E> extends AutoCloseable {
+
+   /**
+    * @return the position of the first element with the same key as the given one, or -1 if there is none
+    */
+   int indexOfKey(E element);
+
+   /**
+    * Stops following the changes of the list
+    */
+   @Override
+   void close();
+}
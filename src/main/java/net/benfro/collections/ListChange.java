@@ -0,0 +1,86 @@
+package net.benfro.collections;
+
+import org.jdesktop.observablecollections.ObservableList;
+import org.jdesktop.observablecollections.ObservableListListener;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One {@link ObservableListListener} callback translated from a GlazedLists list event. The index is relative to
+ * the list as it looks after all preceding changes of the same event have been applied.
+ *
+ * @param <E>
+ */
+final class ListChange<E> {
+
+   enum Type {
+      ADDED, REMOVED, REPLACED, PROPERTY_CHANGED
+   }
+
+   private final Type type;
+   private final int index;
+   private final int length;
+   private final List<E> oldElements;
+
+   private ListChange(Type type, int index, int length, List<E> oldElements) {
+      this.type = type;
+      this.index = index;
+      this.length = length;
+      this.oldElements = oldElements;
+   }
+
+   static <E> ListChange<E> added(int index, int length) {
+      return new ListChange<>(Type.ADDED, index, length, Collections.emptyList());
+   }
+
+   static <E> ListChange<E> removed(int index, List<E> oldElements) {
+      return new ListChange<>(Type.REMOVED, index, oldElements.size(), Collections.unmodifiableList(oldElements));
+   }
+
+   static <E> ListChange<E> replaced(int index, E oldElement) {
+      return new ListChange<>(Type.REPLACED, index, 1, Collections.singletonList(oldElement));
+   }
+
+   static <E> ListChange<E> propertyChanged(int index) {
+      return new ListChange<>(Type.PROPERTY_CHANGED, index, 1, Collections.emptyList());
+   }
+
+   Type getType() {
+      return type;
+   }
+
+   int getIndex() {
+      return index;
+   }
+
+   int getLength() {
+      return length;
+   }
+
+   List<E> getOldElements() {
+      return oldElements;
+   }
+
+   void deliverTo(ObservableList<E> list, ObservableListListener listener) {
+      switch (type) {
+         case ADDED:
+            listener.listElementsAdded(list, index, length);
+            break;
+         case REMOVED:
+            listener.listElementsRemoved(list, index, oldElements);
+            break;
+         case REPLACED:
+            listener.listElementReplaced(list, index, oldElements.get(0));
+            break;
+         case PROPERTY_CHANGED:
+            listener.listElementPropertyChanged(list, index);
+            break;
+      }
+   }
+
+   @Override
+   public String toString() {
+      return type + "@" + index + "+" + length;
+   }
+}
@@ -0,0 +1,236 @@
+package net.benfro.collections;
+
+import com.google.common.base.Equivalence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Computes which elements two versions of a list have in common, and turns one version into the other with as few
+ * changes as possible. Elements are matched by an {@link Equivalence}, e.g. {@link Equivalence#equals()},
+ * {@link Equivalence#identity()} or <code>Equivalence.equals().onResultOf(keyExtractor)</code>.
+ * <p>
+ * The common prefix and suffix are matched first. When the elements in between are unique under the equivalence
+ * they are matched through a hash map, keeping the longest increasing run of positions, in
+ * O(n log n). Otherwise Myers' O((N+M)D) algorithm finds a longest common subsequence; if more than
+ * {@link #MAX_EDIT_DISTANCE} insertions and deletions are needed nothing in between is matched.
+ */
+public final class ListDiff {
+
+   public static final int MAX_EDIT_DISTANCE = 1000;
+
+   private ListDiff() {
+   }
+
+   /**
+    * @return for every old index the new index of the element it is matched with, or -1; the matched new indices
+    * are ascending
+    */
+   public static <E> int[] matches(List<? extends E> oldList, List<? extends E> newList, Equivalence<? super E> equivalence) {
+      final int[] oldToNew = new int[oldList.size()];
+      Arrays.fill(oldToNew, -1);
+
+      int start = 0;
+      int oldEnd = oldList.size();
+      int newEnd = newList.size();
+      while (start < oldEnd && start < newEnd && equivalence.equivalent(oldList.get(start), newList.get(start))) {
+         oldToNew[start] = start;
+         start++;
+      }
+      while (oldEnd > start && newEnd > start && equivalence.equivalent(oldList.get(oldEnd - 1), newList.get(newEnd - 1))) {
+         oldToNew[--oldEnd] = --newEnd;
+      }
+      if (start < oldEnd && start < newEnd && !matchByHash(oldList, newList, start, oldEnd, newEnd, equivalence, oldToNew)) {
+         matchByMyers(oldList, newList, start, oldEnd, newEnd, equivalence, oldToNew);
+      }
+      return oldToNew;
+   }
+
+   /**
+    * Receives the changes turning the old version of a list into the new one, with indices relative to the list
+    * after the changes before
+    *
+    * @param <E>
+    */
+   public interface Changes<E> {
+
+      void removed(int index, List<? extends E> elements);
+
+      void inserted(int index, List<? extends E> elements);
+
+      void replaced(int index, E oldElement, E newElement);
+   }
+
+   /**
+    * @return changes applying themselves to the target, which holds the old version
+    */
+   public static <E> Changes<E> applyingTo(List<E> target) {
+      return new Changes<E>() {
+         @Override
+         public void removed(int index, List<? extends E> elements) {
+            target.subList(index, index + elements.size()).clear();
+         }
+
+         @Override
+         public void inserted(int index, List<? extends E> elements) {
+            target.addAll(index, elements);
+         }
+
+         @Override
+         public void replaced(int index, E oldElement, E newElement) {
+            target.set(index, newElement);
+         }
+      };
+   }
+
+   /**
+    * Reports the changes turning the old version into the new one. Runs of unmatched elements become replacements
+    * as far as they overlap, and removals or insertions for the rest; matched elements are only replaced when they
+    * are not equal. The old version must not change meanwhile.
+    */
+   public static <E> void replay(List<? extends E> oldList, List<? extends E> newList, int[] oldToNew, Changes<? super E> changes) {
+      int position = 0;
+      int newIndex = 0;
+      for (int oldIndex = 0; oldIndex <= oldToNew.length; ) {
+         int nextOld = oldIndex;
+         while (nextOld < oldToNew.length && oldToNew[nextOld] < 0) {
+            nextOld++;
+         }
+         final int nextNew = nextOld < oldToNew.length ? oldToNew[nextOld] : newList.size();
+
+         final int replaced = Math.min(nextOld - oldIndex, nextNew - newIndex);
+         for (int i = 0; i < replaced; i++) {
+            changes.replaced(position++, oldList.get(oldIndex++), newList.get(newIndex++));
+         }
+         if (oldIndex < nextOld) {
+            changes.removed(position, oldList.subList(oldIndex, nextOld));
+         }
+         if (newIndex < nextNew) {
+            changes.inserted(position, newList.subList(newIndex, nextNew));
+            position += nextNew - newIndex;
+            newIndex = nextNew;
+         }
+
+         if (nextOld < oldToNew.length) {
+            final E oldElement = oldList.get(nextOld);
+            final E newElement = newList.get(nextNew);
+            if (!Objects.equals(oldElement, newElement)) {
+               changes.replaced(position, oldElement, newElement);
+            }
+            position++;
+            newIndex++;
+         }
+         oldIndex = nextOld + 1;
+      }
+   }
+
+   private static <E> boolean matchByHash(List<? extends E> oldList, List<? extends E> newList, int start, int oldEnd, int newEnd,
+                                          Equivalence<? super E> equivalence, int[] oldToNew) {
+      final Map<Equivalence.Wrapper<?>, Integer> oldIndices = new HashMap<>();
+      for (int i = start; i < oldEnd; i++) {
+         if (oldIndices.put(equivalence.wrap(oldList.get(i)), i) != null) {
+            return false;
+         }
+      }
+      final int[] candidates = new int[newEnd - start];
+      final Map<Equivalence.Wrapper<?>, Boolean> seen = new HashMap<>();
+      for (int i = start; i < newEnd; i++) {
+         final Equivalence.Wrapper<?> key = equivalence.wrap(newList.get(i));
+         if (seen.put(key, Boolean.TRUE) != null) {
+            return false;
+         }
+         final Integer oldIndex = oldIndices.get(key);
+         candidates[i - start] = oldIndex == null ? -1 : oldIndex;
+      }
+
+      // longest increasing run of old indices, by patience sorting
+      final int[] tails = new int[candidates.length];
+      final int[] previous = new int[candidates.length];
+      int length = 0;
+      for (int i = 0; i < candidates.length; i++) {
+         if (candidates[i] < 0) {
+            continue;
+         }
+         int low = 0;
+         int high = length;
+         while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (candidates[tails[middle]] < candidates[i]) {
+               low = middle + 1;
+            } else {
+               high = middle;
+            }
+         }
+         previous[i] = low > 0 ? tails[low - 1] : -1;
+         tails[low] = i;
+         if (low == length) {
+            length++;
+         }
+      }
+      for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+         oldToNew[candidates[i]] = start + i;
+      }
+      return true;
+   }
+
+   private static <E> void matchByMyers(List<? extends E> oldList, List<? extends E> newList, int start, int oldEnd, int newEnd,
+                                        Equivalence<? super E> equivalence, int[] oldToNew) {
+      final int n = oldEnd - start;
+      final int m = newEnd - start;
+      final int limit = Math.min(n + m, MAX_EDIT_DISTANCE);
+      final int offset = limit + 1;
+      final int[] v = new int[2 * limit + 3];
+      final List<int[]> trace = new ArrayList<>();
+
+      for (int d = 0; d <= limit; d++) {
+         for (int k = -d; k <= d; k += 2) {
+            int x = k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]) ? v[offset + k + 1] : v[offset + k - 1] + 1;
+            int y = x - k;
+            while (x < n && y < m && equivalence.equivalent(oldList.get(start + x), newList.get(start + y))) {
+               x++;
+               y++;
+            }
+            v[offset + k] = x;
+            if (x >= n && y >= m) {
+               backtrack(trace, d, n, m, start, oldToNew);
+               return;
+            }
+         }
+         trace.add(Arrays.copyOfRange(v, offset - d, offset + d + 1));
+      }
+   }
+
+   /**
+    * Walks the furthest reaching paths back from the end, recording the diagonal moves as matches
+    */
+   private static void backtrack(List<int[]> trace, int distance, int n, int m, int start, int[] oldToNew) {
+      int x = n;
+      int y = m;
+      for (int d = distance; d > 0; d--) {
+         final int[] previous = trace.get(d - 1);
+         final int k = x - y;
+         final boolean down = k == -d || (k != d && previous[k - 1 + d - 1] < previous[k + 1 + d - 1]);
+         final int previousK = down ? k + 1 : k - 1;
+         final int previousX = previous[previousK + d - 1];
+         final int previousY = previousX - previousK;
+         final int moveX = down ? previousX : previousX + 1;
+         final int moveY = down ? previousY + 1 : previousY;
+         while (x > moveX && y > moveY) {
+            x--;
+            y--;
+            oldToNew[start + x] = start + y;
+         }
+         x = previousX;
+         y = previousY;
+      }
+      while (x > 0 && y > 0) {
+         x--;
+         y--;
+         oldToNew[start + x] = start + y;
+      }
+   }
+}
@@ -0,0 +1,151 @@
+package net.benfro.collections;
+
+import ca.odell.glazedlists.EventList;
+import ca.odell.glazedlists.event.ListEvent;
+import com.google.common.collect.Lists;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Translates GlazedLists {@link ListEvent}s into {@link ListChange}s. Every block of the event gets its own change,
+ * and adjacent changes of the same type are merged into one. A shadow copy of the source list is kept up to date
+ * with every event to know which elements were replaced, and which were removed when the event does not carry the
+ * old values itself. The work per event is proportional to the number of changed elements.
+ * <p>
+ * Source lists that report the old value of every deleted and updated element can be translated without the shadow
+ * copy, so the heap used does not grow with the size of the list. Removed elements the event does not know about
+ * are then reported as <code>null</code>, and updates without an old value as property changes.
+ * <p>
+ * The shadow copy doubles as the content of {@link ListSnapshot}s: taking a snapshot shares it, and the next event
+ * copies it before applying its changes.
+ *
+ * @param <E>
+ */
+final class ListEventTranslator<E> {
+
+   private List<E> previousState;
+   private boolean shared;
+   private long version;
+
+   private ListChange.Type pendingType;
+   private int pendingIndex;
+   private List<E> pendingElements;
+
+   ListEventTranslator(List<E> initialState) {
+      this.previousState = Lists.newArrayList(initialState);
+   }
+
+   /**
+    * Creates a translator without a shadow copy, relying on the old values carried by the events
+    */
+   ListEventTranslator() {
+      this.previousState = null;
+   }
+
+   List<ListChange<E>> translate(ListEvent<E> listEvent) {
+      final EventList<E> source = listEvent.getSourceList();
+      final List<ListChange<E>> changes = new ArrayList<>();
+      if (shared) {
+         previousState = new ArrayList<>(previousState);
+         shared = false;
+      }
+      version++;
+
+      while (listEvent.next()) {
+         final int index = listEvent.getIndex();
+         switch (listEvent.getType()) {
+            case ListEvent.INSERT:
+               if (pendingType != ListChange.Type.ADDED || index != pendingIndex + pendingElements.size()) {
+                  flush(changes);
+                  begin(ListChange.Type.ADDED, index);
+               }
+               pendingElements.add(previousState == null ? null : source.get(index));
+               break;
+            case ListEvent.DELETE:
+               if (pendingType != ListChange.Type.REMOVED || index != pendingIndex) {
+                  flush(changes);
+                  begin(ListChange.Type.REMOVED, index);
+               }
+               pendingElements.add(deletedValue(listEvent));
+               break;
+            case ListEvent.UPDATE:
+               flush(changes);
+               final E newValue = previousState == null ? listEvent.getNewValue() : source.get(index);
+               final E oldValue = previousState == null ? listEvent.getOldValue() : previousState.set(index, newValue);
+               if (oldValue != newValue && oldValue != ListEvent.UNKNOWN_VALUE) {
+                  changes.add(ListChange.replaced(index, oldValue));
+               } else {
+                  changes.add(ListChange.propertyChanged(index));
+               }
+               break;
+         }
+      }
+      flush(changes);
+
+      return changes;
+   }
+
+   /**
+    * @return a snapshot sharing the shadow copy, or <code>null</code> if there is none
+    */
+   ListSnapshot<E> snapshot() {
+      if (previousState == null) {
+         return null;
+      }
+      shared = true;
+      return new ListSnapshot<>(previousState, version);
+   }
+
+   /**
+    * @return <code>true</code> if a shadow copy of the list is kept
+    */
+   boolean tracksPreviousState() {
+      return previousState != null;
+   }
+
+   long getVersion() {
+      return version;
+   }
+
+   /**
+    * Deleted elements are taken from the event when the source list reports them, otherwise from the shadow copy.
+    * The shadow copy is only pruned when the whole run of deletes is flushed, so the element deleted now is found
+    * after the ones already collected for the run.
+    */
+   private E deletedValue(ListEvent<E> listEvent) {
+      final E oldValue = listEvent.getOldValue();
+      if (oldValue != ListEvent.UNKNOWN_VALUE) {
+         return oldValue;
+      }
+      if (previousState == null) {
+         return null;
+      }
+      return previousState.get(pendingIndex + pendingElements.size());
+   }
+
+   private void begin(ListChange.Type type, int index) {
+      pendingType = type;
+      pendingIndex = index;
+      pendingElements = new ArrayList<>();
+   }
+
+   /**
+    * Applies the pending run to the shadow copy with a single bulk operation and records its change.
+    */
+   private void flush(List<ListChange<E>> changes) {
+      if (pendingType == ListChange.Type.ADDED) {
+         if (previousState != null) {
+            previousState.addAll(pendingIndex, pendingElements);
+         }
+         changes.add(ListChange.added(pendingIndex, pendingElements.size()));
+      } else if (pendingType == ListChange.Type.REMOVED) {
+         if (previousState != null) {
+            previousState.subList(pendingIndex, pendingIndex + pendingElements.size()).clear();
+         }
+         changes.add(ListChange.removed(pendingIndex, pendingElements));
+      }
+      pendingType = null;
+      pendingElements = null;
+   }
+}
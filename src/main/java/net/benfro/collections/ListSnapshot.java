@@ -0,0 +1,41 @@
+package net.benfro.collections;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable view of a {@link DefaultObservableList} as it was at one version, see
+ * {@link DefaultObservableList#snapshot()}. Reading it takes no lock, and its iterators never throw
+ * {@link java.util.ConcurrentModificationException}.
+ *
+ * @param <E>
+ */
+public final class ListSnapshot<E> extends AbstractList<E> implements RandomAccess {
+
+   private final List<E> elements;
+   private final long version;
+
+   ListSnapshot(List<E> elements, long version) {
+      this.elements = elements;
+      this.version = version;
+   }
+
+   /**
+    * @return the number of events the list had published when the snapshot was taken; snapshots with the same
+    * version have the same elements
+    */
+   public long getVersion() {
+      return version;
+   }
+
+   @Override
+   public E get(int index) {
+      return elements.get(index);
+   }
+
+   @Override
+   public int size() {
+      return elements.size();
+   }
+}
@@ -0,0 +1,62 @@
+package net.benfro.collections;
+
+import ca.odell.glazedlists.util.concurrent.Lock;
+import net.benfro.collections.metrics.ListMetrics;
+
+/**
+ * A {@link Lock} reporting wait and hold times to a {@link ListMetrics}. Nested acquisitions by the same thread
+ * are counted, and the hold time is reported when the outermost one is released.
+ */
+final class MeasuredLock implements Lock {
+
+   private static final class Hold {
+      int depth;
+      long since;
+   }
+
+   private final Lock delegate;
+   private final ListMetrics.LockType type;
+   private final ListMetrics metrics;
+   private final ThreadLocal<Hold> holds = ThreadLocal.withInitial(Hold::new);
+
+   MeasuredLock(Lock delegate, ListMetrics.LockType type, ListMetrics metrics) {
+      this.delegate = delegate;
+      this.type = type;
+      this.metrics = metrics;
+   }
+
+   @Override
+   public void lock() {
+      final long start = System.nanoTime();
+      delegate.lock();
+      final long acquired = System.nanoTime();
+      metrics.lockAcquired(type, acquired - start);
+      held(acquired);
+   }
+
+   @Override
+   public boolean tryLock() {
+      if (delegate.tryLock()) {
+         metrics.lockAcquired(type, 0L);
+         held(System.nanoTime());
+         return true;
+      }
+      return false;
+   }
+
+   @Override
+   public void unlock() {
+      final Hold hold = holds.get();
+      if (--hold.depth == 0) {
+         metrics.lockReleased(type, System.nanoTime() - hold.since);
+      }
+      delegate.unlock();
+   }
+
+   private void held(long acquired) {
+      final Hold hold = holds.get();
+      if (hold.depth++ == 0) {
+         hold.since = acquired;
+      }
+   }
+}
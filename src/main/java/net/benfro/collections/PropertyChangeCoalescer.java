@@ -0,0 +1,86 @@
+package net.benfro.collections;
+
+import javax.swing.Timer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds back the property changes of a {@link DefaultObservableList} as a bitset of dirty positions, so a burst of
+ * property changes of one element is announced as one <code>listElementPropertyChanged</code>, see
+ * {@link DefaultObservableList#setPropertyChangeCoalescing(long, TimeUnit)}.
+ * <p>
+ * Any other change first releases the held back property changes in front of it, so the dirty positions always
+ * refer to the current list. Changes held back longer than the delay are released by the next writer, under the
+ * write lock of the list. Without further writes, a one-shot Swing timer flushes them on the Event Dispatch Thread,
+ * like the flush of {@link CoalescingObservableList}, but without taking the list lock, so a contended list does not
+ * stall painting: the dirty positions are guarded by the monitor of the coalescer instead, held only briefly.
+ *
+ * @param <E>
+ */
+final class PropertyChangeCoalescer<E> {
+
+   private final BitSet dirty = new BitSet();
+   private final long delayNanos;
+   private final Timer timer;
+   private boolean scheduled;
+   private long heldSince;
+
+   /**
+    * @param flush run on the Event Dispatch Thread after the delay to release the held back changes, without the
+    *              list lock
+    */
+   PropertyChangeCoalescer(long delay, TimeUnit unit, Runnable flush) {
+      delayNanos = unit.toNanos(delay);
+      timer = new Timer((int) Math.min(unit.toMillis(delay), Integer.MAX_VALUE), e -> flush.run());
+      timer.setRepeats(false);
+   }
+
+   /**
+    * @return the changes to deliver now, with the property changes replaced by the held back ones in front of the
+    * first other change, followed by all property changes if they were held back longer than the delay
+    */
+   synchronized List<ListChange<E>> hold(List<ListChange<E>> changes) {
+      final List<ListChange<E>> released = new ArrayList<>();
+      for (ListChange<E> change : changes) {
+         if (change.getType() == ListChange.Type.PROPERTY_CHANGED) {
+            dirty.set(change.getIndex(), change.getIndex() + change.getLength());
+         } else {
+            drainTo(released);
+            released.add(change);
+         }
+      }
+      if (dirty.isEmpty()) {
+         return released;
+      }
+      if (!scheduled) {
+         scheduled = true;
+         heldSince = System.nanoTime();
+         timer.start();
+      } else if (System.nanoTime() - heldSince >= delayNanos) {
+         scheduled = false;
+         timer.stop();
+         drainTo(released);
+      }
+      return released;
+   }
+
+   /**
+    * @return one property change per dirty position, in ascending order
+    */
+   synchronized List<ListChange<E>> release() {
+      scheduled = false;
+      timer.stop();
+      final List<ListChange<E>> released = new ArrayList<>(dirty.cardinality());
+      drainTo(released);
+      return released;
+   }
+
+   private void drainTo(List<ListChange<E>> released) {
+      for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+         released.add(ListChange.propertyChanged(i));
+      }
+      dirty.clear();
+   }
+}
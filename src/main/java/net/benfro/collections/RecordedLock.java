@@ -0,0 +1,78 @@
+package net.benfro.collections;
+
+import ca.odell.glazedlists.util.concurrent.Lock;
+import net.benfro.collections.metrics.ListFlightRecorder;
+
+import java.util.function.Supplier;
+
+/**
+ * A write {@link Lock} recording every hold as a "write lock held" flight recorder event, see
+ * {@link ListFlightRecorder}. Nested acquisitions by the same thread are counted, and one event covering the
+ * outermost hold is recorded, named by the operation given when it was taken.
+ */
+final class RecordedLock implements Lock {
+
+   private static final String UNNAMED = "lock";
+
+   private static final class Hold {
+      int depth;
+      Object recording;
+      String operation;
+   }
+
+   private final Lock delegate;
+   private final Supplier<String> listId;
+   private final ThreadLocal<Hold> holds = ThreadLocal.withInitial(Hold::new);
+
+   RecordedLock(Lock delegate, Supplier<String> listId) {
+      this.delegate = delegate;
+      this.listId = listId;
+   }
+
+   @Override
+   public void lock() {
+      lock(UNNAMED);
+   }
+
+   /**
+    * @param operation names the hold if this is the outermost acquisition of the thread
+    */
+   void lock(String operation) {
+      delegate.lock();
+      held(operation);
+   }
+
+   @Override
+   public boolean tryLock() {
+      if (delegate.tryLock()) {
+         held(UNNAMED);
+         return true;
+      }
+      return false;
+   }
+
+   @Override
+   public void unlock() {
+      final Hold hold = holds.get();
+      if (--hold.depth == 0) {
+         ListFlightRecorder.get().commitWriteLockHold(hold.recording, listId.get(), hold.operation);
+         hold.recording = null;
+      }
+      delegate.unlock();
+   }
+
+   /**
+    * @return whether the current thread holds the lock, taken through this instance
+    */
+   boolean isHeldByCurrentThread() {
+      return holds.get().depth > 0;
+   }
+
+   private void held(String operation) {
+      final Hold hold = holds.get();
+      if (hold.depth++ == 0) {
+         hold.operation = operation;
+         hold.recording = ListFlightRecorder.get().beginWriteLockHold();
+      }
+   }
+}
@@ -0,0 +1,44 @@
+package net.benfro.collections;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs tasks one at a time and in submission order on top of any {@link Executor}, also a multi threaded one.
+ */
+final class SerialExecutor implements Executor {
+
+   private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+   private final AtomicBoolean scheduled = new AtomicBoolean();
+   private final Executor executor;
+
+   SerialExecutor(Executor executor) {
+      this.executor = executor;
+   }
+
+   @Override
+   public void execute(Runnable task) {
+      tasks.add(task);
+      schedule();
+   }
+
+   private void schedule() {
+      if (!tasks.isEmpty() && scheduled.compareAndSet(false, true)) {
+         executor.execute(this::drain);
+      }
+   }
+
+   private void drain() {
+      try {
+         Runnable task;
+         while ((task = tasks.poll()) != null) {
+            task.run();
+         }
+      } finally {
+         scheduled.set(false);
+         schedule();
+      }
+   }
+}
@@ -0,0 +1,135 @@
+package net.benfro.collections;
+
+import ca.odell.glazedlists.util.concurrent.Lock;
+import ca.odell.glazedlists.util.concurrent.ReadWriteLock;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A GlazedLists {@link ReadWriteLock} built on a {@link StampedLock}. Both locks are reentrant, as GlazedLists
+ * expects. A thread holding the write lock may also take the read lock, and keeps it when releasing the write lock;
+ * upgrading a read lock to the write lock is not supported. Besides blocking reads it offers optimistic reads, see
+ * {@link DefaultObservableList#readOptimistic(java.util.function.Function)} of a list made by
+ * {@link DefaultObservableList#ofReadMostly(java.util.List)}, which do not write to shared memory at all and so scale
+ * across cores when writes are rare.
+ */
+public final class StampedReadWriteLock implements ReadWriteLock {
+
+   /**
+    * The read holds of one thread
+    */
+   private static final class ReadHold {
+      int count;
+      boolean locked;
+   }
+
+   private final StampedLock stampedLock = new StampedLock();
+   private final ThreadLocal<ReadHold> readHolds = ThreadLocal.withInitial(ReadHold::new);
+   private volatile Thread writer;
+   private int writeHolds;
+   private long writeStamp;
+
+   private final Lock readLock = new Lock() {
+      @Override
+      public void lock() {
+         final ReadHold hold = readHolds.get();
+         if (hold.count == 0 && writer != Thread.currentThread()) {
+            stampedLock.asReadLock().lock();
+            hold.locked = true;
+         }
+         hold.count++;
+      }
+
+      @Override
+      public boolean tryLock() {
+         final ReadHold hold = readHolds.get();
+         if (hold.count == 0 && writer != Thread.currentThread()) {
+            if (!stampedLock.asReadLock().tryLock()) {
+               return false;
+            }
+            hold.locked = true;
+         }
+         hold.count++;
+         return true;
+      }
+
+      @Override
+      public void unlock() {
+         final ReadHold hold = readHolds.get();
+         if (hold.count == 0) {
+            throw new IllegalMonitorStateException("The read lock is not held by this thread");
+         }
+         if (--hold.count == 0 && hold.locked) {
+            hold.locked = false;
+            stampedLock.asReadLock().unlock();
+         }
+      }
+   };
+
+   private final Lock writeLock = new Lock() {
+      @Override
+      public void lock() {
+         if (writer != Thread.currentThread()) {
+            writeStamp = stampedLock.writeLock();
+            writer = Thread.currentThread();
+         }
+         writeHolds++;
+      }
+
+      @Override
+      public boolean tryLock() {
+         if (writer != Thread.currentThread()) {
+            final long stamp = stampedLock.tryWriteLock();
+            if (stamp == 0) {
+               return false;
+            }
+            writeStamp = stamp;
+            writer = Thread.currentThread();
+         }
+         writeHolds++;
+         return true;
+      }
+
+      @Override
+      public void unlock() {
+         if (writer != Thread.currentThread()) {
+            throw new IllegalMonitorStateException("The write lock is not held by this thread");
+         }
+         if (--writeHolds == 0) {
+            writer = null;
+            final ReadHold hold = readHolds.get();
+            if (hold.count > 0) {
+               // downgrade, keeping the read holds taken while writing
+               stampedLock.tryConvertToReadLock(writeStamp);
+               hold.locked = true;
+            } else {
+               stampedLock.unlockWrite(writeStamp);
+            }
+         }
+      }
+   };
+
+   @Override
+   public Lock readLock() {
+      return readLock;
+   }
+
+   @Override
+   public Lock writeLock() {
+      return writeLock;
+   }
+
+   /**
+    * @return a stamp to {@link #validate(long)} after reading, or zero if the write lock is held
+    */
+   public long tryOptimisticRead() {
+      return stampedLock.tryOptimisticRead();
+   }
+
+   /**
+    * @return <code>true</code> if the write lock has not been taken since the stamp was issued
+    */
+   public boolean validate(long stamp) {
+      return stampedLock.validate(stamp);
+   }
+}
@@ -0,0 +1,203 @@
+package net.benfro.collections.columnar;
+
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Stores the values of each column of a {@link RecordSchema} contiguously in its own buffer, off-heap when direct.
+ * Rows are inserted and removed by moving the values behind them.
+ */
+final class ColumnStore {
+
+   private final RecordSchema schema;
+   private final boolean direct;
+   private final ByteBuffer[] columns;
+   private int capacity;
+   private int size;
+
+   ColumnStore(RecordSchema schema, int initialCapacity, boolean direct) {
+      Preconditions.checkArgument(initialCapacity >= 0, "The initial capacity must not be negative");
+      this.schema = schema;
+      this.direct = direct;
+      this.columns = new ByteBuffer[schema.getColumnCount()];
+      this.capacity = initialCapacity;
+      for (int column = 0; column < columns.length; column++) {
+         columns[column] = allocate(initialCapacity * width(column));
+      }
+   }
+
+   RecordSchema getSchema() {
+      return schema;
+   }
+
+   int size() {
+      return size;
+   }
+
+   /**
+    * Opens a gap of <code>count</code> rows at the index. The values in the gap are undefined.
+    */
+   void insert(int index, int count) {
+      ensureCapacity(size + count);
+      for (int column = 0; column < columns.length; column++) {
+         final int width = width(column);
+         move(columns[column], index * width, (index + count) * width, (size - index) * width);
+      }
+      size += count;
+   }
+
+   void remove(int fromIndex, int toIndex) {
+      for (int column = 0; column < columns.length; column++) {
+         final int width = width(column);
+         move(columns[column], toIndex * width, fromIndex * width, (size - toIndex) * width);
+      }
+      size -= toIndex - fromIndex;
+   }
+
+   /**
+    * Copies all values of a row of another store with the same schema into a row of this one
+    */
+   void copyRow(ColumnStore from, int fromIndex, int toIndex) {
+      for (int column = 0; column < columns.length; column++) {
+         final int width = width(column);
+         if (width == Long.BYTES) {
+            columns[column].putLong(toIndex * width, from.columns[column].getLong(fromIndex * width));
+         } else {
+            columns[column].putInt(toIndex * width, from.columns[column].getInt(fromIndex * width));
+         }
+      }
+   }
+
+   /**
+    * @return a detached copy of the row, stored on the heap
+    */
+   Row copyOf(int index) {
+      final ColumnStore copy = new ColumnStore(schema, 1, false);
+      copy.insert(0, 1);
+      copy.copyRow(this, index, 0);
+      return new Row(copy, null, 0);
+   }
+
+   boolean rowEquals(int index, ColumnStore other, int otherIndex) {
+      for (int column = 0; column < columns.length; column++) {
+         final int width = width(column);
+         if (width == Long.BYTES) {
+            if (columns[column].getLong(index * width) != other.columns[column].getLong(otherIndex * width)) {
+               return false;
+            }
+         } else if (columns[column].getInt(index * width) != other.columns[column].getInt(otherIndex * width)) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   int rowHashCode(int index) {
+      int hash = 1;
+      for (int column = 0; column < columns.length; column++) {
+         final int width = width(column);
+         final long bits = width == Long.BYTES ? columns[column].getLong(index * width) : columns[column].getInt(index * width);
+         hash = 31 * hash + Long.hashCode(bits);
+      }
+      return hash;
+   }
+
+   int getInt(int column, int index) {
+      return buffer(column, ColumnType.INT).getInt(index * Integer.BYTES);
+   }
+
+   long getLong(int column, int index) {
+      return buffer(column, ColumnType.LONG).getLong(index * Long.BYTES);
+   }
+
+   float getFloat(int column, int index) {
+      return buffer(column, ColumnType.FLOAT).getFloat(index * Float.BYTES);
+   }
+
+   double getDouble(int column, int index) {
+      return buffer(column, ColumnType.DOUBLE).getDouble(index * Double.BYTES);
+   }
+
+   void putInt(int column, int index, int value) {
+      buffer(column, ColumnType.INT).putInt(index * Integer.BYTES, value);
+   }
+
+   void putLong(int column, int index, long value) {
+      buffer(column, ColumnType.LONG).putLong(index * Long.BYTES, value);
+   }
+
+   void putFloat(int column, int index, float value) {
+      buffer(column, ColumnType.FLOAT).putFloat(index * Float.BYTES, value);
+   }
+
+   void putDouble(int column, int index, double value) {
+      buffer(column, ColumnType.DOUBLE).putDouble(index * Double.BYTES, value);
+   }
+
+   /**
+    * @return a read-only view of the values of the column, in native byte order
+    */
+   ByteBuffer column(int column) {
+      final ByteBuffer view = columns[column].duplicate();
+      view.limit(size * width(column));
+      return view.slice().asReadOnlyBuffer().order(ByteOrder.nativeOrder());
+   }
+
+   private ByteBuffer buffer(int column, ColumnType type) {
+      if (schema.getColumnType(column) != type) {
+         throw new IllegalArgumentException("Column " + schema.getColumnName(column) + " is not of type " + type);
+      }
+      return columns[column];
+   }
+
+   private int width(int column) {
+      return schema.getColumnType(column).getWidth();
+   }
+
+   private void ensureCapacity(int required) {
+      if (required <= capacity) {
+         return;
+      }
+      final int newCapacity = Math.max(required, capacity + (capacity >> 1) + 1);
+      for (int column = 0; column < columns.length; column++) {
+         final ByteBuffer old = columns[column].duplicate();
+         old.limit(size * width(column));
+         final ByteBuffer grown = allocate(newCapacity * width(column));
+         grown.put(old).clear();
+         columns[column] = grown;
+      }
+      capacity = newCapacity;
+   }
+
+   private ByteBuffer allocate(int bytes) {
+      return (direct ? ByteBuffer.allocateDirect(bytes) : ByteBuffer.allocate(bytes)).order(ByteOrder.nativeOrder());
+   }
+
+   /**
+    * Moves a region within a buffer word by word, in the direction that keeps overlapping regions intact.
+    * All column widths are multiples of four bytes.
+    */
+   private static void move(ByteBuffer buffer, int from, int to, int length) {
+      if (length == 0 || from == to) {
+         return;
+      }
+      final int words = length / Long.BYTES;
+      if (to < from) {
+         for (int i = 0; i < words; i++) {
+            buffer.putLong(to + i * Long.BYTES, buffer.getLong(from + i * Long.BYTES));
+         }
+         if (length % Long.BYTES != 0) {
+            buffer.putInt(to + length - Integer.BYTES, buffer.getInt(from + length - Integer.BYTES));
+         }
+      } else {
+         if (length % Long.BYTES != 0) {
+            buffer.putInt(to + length - Integer.BYTES, buffer.getInt(from + length - Integer.BYTES));
+         }
+         for (int i = words - 1; i >= 0; i--) {
+            buffer.putLong(to + i * Long.BYTES, buffer.getLong(from + i * Long.BYTES));
+         }
+      }
+   }
+}
@@ -0,0 +1,24 @@
+package net.benfro.collections.columnar;
+
+/**
+ * The fixed-width value types a {@link RecordSchema} column can hold
+ */
+public enum ColumnType {
+   INT(Integer.BYTES),
+   LONG(Long.BYTES),
+   FLOAT(Float.BYTES),
+   DOUBLE(Double.BYTES);
+
+   private final int width;
+
+   ColumnType(int width) {
+      this.width = width;
+   }
+
+   /**
+    * @return the number of bytes a value takes
+    */
+   public int getWidth() {
+      return width;
+   }
+}
@@ -0,0 +1,220 @@
+package net.benfro.collections.columnar;
+
+import ca.odell.glazedlists.AbstractEventList;
+import ca.odell.glazedlists.event.ListEventPublisher;
+import ca.odell.glazedlists.util.concurrent.LockFactory;
+import ca.odell.glazedlists.util.concurrent.ReadWriteLock;
+import com.google.common.base.Preconditions;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An {@link ca.odell.glazedlists.EventList} of fixed-layout records stored column by column in direct
+ * {@link ByteBuffer}s, outside the Java heap. {@link #get(int)} hands out {@link Row} flyweights, and the typed
+ * accessors such as {@link #getDouble(int, int)} read a single value without any allocation, so scanning a column
+ * walks contiguous memory. Deletes and updates report detached copies of the old rows in their events, so the list
+ * can be wrapped without keeping a copy of its elements, see
+ * {@link net.benfro.collections.DefaultObservableList#ofColumnar(RecordSchema)}.
+ * <p>
+ * Like {@link ca.odell.glazedlists.BasicEventList} the list does not lock itself; callers hold the write lock of
+ * {@link #getReadWriteLock()} while modifying it from several threads.
+ */
+public class ColumnarEventList extends AbstractEventList<Row> implements RandomAccess {
+
+   private final ColumnStore store;
+
+   public ColumnarEventList(RecordSchema schema) {
+      this(schema, 1024);
+   }
+
+   public ColumnarEventList(RecordSchema schema, int initialCapacity) {
+      this(schema, initialCapacity, null, null);
+   }
+
+   public ColumnarEventList(RecordSchema schema, int initialCapacity, ListEventPublisher publisher, ReadWriteLock readWriteLock) {
+      super(publisher);
+      this.readWriteLock = readWriteLock == null ? LockFactory.DEFAULT.createReadWriteLock() : readWriteLock;
+      this.store = new ColumnStore(schema, initialCapacity, true);
+   }
+
+   public RecordSchema getSchema() {
+      return store.getSchema();
+   }
+
+   @Override
+   public int size() {
+      return store.size();
+   }
+
+   /**
+    * @return a flyweight view of the row at the index
+    */
+   @Override
+   public Row get(int index) {
+      Preconditions.checkElementIndex(index, size());
+      return new Row(store, this, index);
+   }
+
+   /**
+    * Copies the values of the row into a new row at the index
+    */
+   @Override
+   public void add(int index, Row row) {
+      Preconditions.checkPositionIndex(index, size());
+      final Row values = checkSchema(row).isViewOf(this) ? row.copy() : row;
+      store.insert(index, 1);
+      store.copyRow(values.getStore(), values.getIndex(), index);
+      updates.beginEvent();
+      updates.elementInserted(index, get(index));
+      updates.commitEvent();
+   }
+
+   /**
+    * Copies the values of all rows into new rows at the index, notifying the listeners once
+    */
+   @Override
+   public boolean addAll(int index, Collection<? extends Row> rows) {
+      Preconditions.checkPositionIndex(index, size());
+      final List<Row> values = new ArrayList<>(rows.size());
+      for (Row row : rows) {
+         values.add(checkSchema(row).isViewOf(this) ? row.copy() : row);
+      }
+      store.insert(index, values.size());
+      updates.beginEvent();
+      for (int i = 0; i < values.size(); i++) {
+         store.copyRow(values.get(i).getStore(), values.get(i).getIndex(), index + i);
+         updates.elementInserted(index + i, get(index + i));
+      }
+      updates.commitEvent();
+      return !values.isEmpty();
+   }
+
+   @Override
+   public boolean addAll(Collection<? extends Row> rows) {
+      return addAll(size(), rows);
+   }
+
+   /**
+    * Copies the values of the row over the row at the index
+    *
+    * @return a detached copy of the values replaced
+    */
+   @Override
+   public Row set(int index, Row row) {
+      Preconditions.checkElementIndex(index, size());
+      checkSchema(row);
+      final Row old = store.copyOf(index);
+      store.copyRow(row.getStore(), row.getIndex(), index);
+      fireUpdated(index, old);
+      return old;
+   }
+
+   /**
+    * @return a detached copy of the removed row
+    */
+   @Override
+   public Row remove(int index) {
+      Preconditions.checkElementIndex(index, size());
+      final Row old = store.copyOf(index);
+      store.remove(index, index + 1);
+      updates.beginEvent();
+      updates.elementDeleted(index, old);
+      updates.commitEvent();
+      return old;
+   }
+
+   @Override
+   protected void removeRange(int fromIndex, int toIndex) {
+      Preconditions.checkPositionIndexes(fromIndex, toIndex, size());
+      if (fromIndex == toIndex) {
+         return;
+      }
+      updates.beginEvent();
+      for (int i = fromIndex; i < toIndex; i++) {
+         updates.elementDeleted(fromIndex, store.copyOf(i));
+      }
+      store.remove(fromIndex, toIndex);
+      updates.commitEvent();
+   }
+
+   @Override
+   public void clear() {
+      removeRange(0, size());
+   }
+
+   public int getInt(int index, int column) {
+      Preconditions.checkElementIndex(index, size());
+      return store.getInt(column, index);
+   }
+
+   public long getLong(int index, int column) {
+      Preconditions.checkElementIndex(index, size());
+      return store.getLong(column, index);
+   }
+
+   public float getFloat(int index, int column) {
+      Preconditions.checkElementIndex(index, size());
+      return store.getFloat(column, index);
+   }
+
+   public double getDouble(int index, int column) {
+      Preconditions.checkElementIndex(index, size());
+      return store.getDouble(column, index);
+   }
+
+   public void setInt(int index, int column, int value) {
+      Preconditions.checkElementIndex(index, size());
+      final Row old = store.copyOf(index);
+      store.putInt(column, index, value);
+      fireUpdated(index, old);
+   }
+
+   public void setLong(int index, int column, long value) {
+      Preconditions.checkElementIndex(index, size());
+      final Row old = store.copyOf(index);
+      store.putLong(column, index, value);
+      fireUpdated(index, old);
+   }
+
+   public void setFloat(int index, int column, float value) {
+      Preconditions.checkElementIndex(index, size());
+      final Row old = store.copyOf(index);
+      store.putFloat(column, index, value);
+      fireUpdated(index, old);
+   }
+
+   public void setDouble(int index, int column, double value) {
+      Preconditions.checkElementIndex(index, size());
+      final Row old = store.copyOf(index);
+      store.putDouble(column, index, value);
+      fireUpdated(index, old);
+   }
+
+   /**
+    * @return a read-only view of the values of the column in native byte order, e.g. to scan it with
+    * {@link ByteBuffer#asDoubleBuffer()}. The view is invalid after the next structural change.
+    */
+   public ByteBuffer getColumn(int column) {
+      return store.column(column);
+   }
+
+   @Override
+   public void dispose() {
+      // the buffers are released when the list is garbage collected
+   }
+
+   private void fireUpdated(int index, Row old) {
+      updates.beginEvent();
+      updates.elementUpdated(index, old, get(index));
+      updates.commitEvent();
+   }
+
+   private Row checkSchema(Row row) {
+      Preconditions.checkArgument(row.getSchema().equals(getSchema()), "The row does not match the schema %s", getSchema());
+      return row;
+   }
+}
@@ -0,0 +1,118 @@
+package net.benfro.collections.columnar;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Describes the named, fixed-width columns of the records stored in a {@link ColumnarEventList}
+ */
+public final class RecordSchema {
+
+   public static Builder builder() {
+      return new Builder();
+   }
+
+   public static final class Builder {
+      private final List<String> names = new ArrayList<>();
+      private final List<ColumnType> types = new ArrayList<>();
+
+      private Builder() {
+      }
+
+      public Builder intColumn(String name) {
+         return column(name, ColumnType.INT);
+      }
+
+      public Builder longColumn(String name) {
+         return column(name, ColumnType.LONG);
+      }
+
+      public Builder floatColumn(String name) {
+         return column(name, ColumnType.FLOAT);
+      }
+
+      public Builder doubleColumn(String name) {
+         return column(name, ColumnType.DOUBLE);
+      }
+
+      public Builder column(String name, ColumnType type) {
+         Preconditions.checkArgument(!names.contains(name), "Duplicate column %s", name);
+         names.add(Objects.requireNonNull(name));
+         types.add(Objects.requireNonNull(type));
+         return this;
+      }
+
+      public RecordSchema build() {
+         Preconditions.checkState(!names.isEmpty(), "A schema needs at least one column");
+         return new RecordSchema(ImmutableList.copyOf(names), ImmutableList.copyOf(types));
+      }
+   }
+
+   private final ImmutableList<String> names;
+   private final ImmutableList<ColumnType> types;
+
+   private RecordSchema(ImmutableList<String> names, ImmutableList<ColumnType> types) {
+      this.names = names;
+      this.types = types;
+   }
+
+   public int getColumnCount() {
+      return names.size();
+   }
+
+   public String getColumnName(int column) {
+      return names.get(column);
+   }
+
+   public ColumnType getColumnType(int column) {
+      return types.get(column);
+   }
+
+   /**
+    * @throws IllegalArgumentException if there is no column with the name
+    */
+   public int indexOf(String name) {
+      final int column = names.indexOf(name);
+      Preconditions.checkArgument(column >= 0, "Unknown column %s", name);
+      return column;
+   }
+
+   /**
+    * @return a new detached record of this schema with all values zero, to fill in and add to a list
+    */
+   public Row newRecord() {
+      final ColumnStore store = new ColumnStore(this, 1, false);
+      store.insert(0, 1);
+      return new Row(store, null, 0);
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) {
+         return true;
+      }
+      if (!(o instanceof RecordSchema)) {
+         return false;
+      }
+      RecordSchema that = (RecordSchema) o;
+      return names.equals(that.names) && types.equals(that.types);
+   }
+
+   @Override
+   public int hashCode() {
+      return Objects.hash(names, types);
+   }
+
+   @Override
+   public String toString() {
+      StringBuilder sb = new StringBuilder("RecordSchema{");
+      for (int i = 0; i < names.size(); i++) {
+         sb.append(i == 0 ? "" : ", ").append(names.get(i)).append(':').append(types.get(i));
+      }
+      return sb.append('}').toString();
+   }
+}
@@ -0,0 +1,167 @@
+package net.benfro.collections.columnar;
+
+/**
+ * A record of a {@link RecordSchema}. Rows returned by {@link ColumnarEventList#get(int)} are flyweight views that
+ * read the values at their index when accessed, and write through the list so its listeners are notified. Keep a
+ * {@link #copy()} instead of a view across structural changes of the list. Rows are equal when their schemas and
+ * values are.
+ */
+public final class Row {
+
+   private final ColumnStore store;
+   private final ColumnarEventList owner;
+   private final int index;
+
+   Row(ColumnStore store, ColumnarEventList owner, int index) {
+      this.store = store;
+      this.owner = owner;
+      this.index = index;
+   }
+
+   public RecordSchema getSchema() {
+      return store.getSchema();
+   }
+
+   public int getInt(int column) {
+      return store.getInt(column, index);
+   }
+
+   public int getInt(String column) {
+      return getInt(getSchema().indexOf(column));
+   }
+
+   public long getLong(int column) {
+      return store.getLong(column, index);
+   }
+
+   public long getLong(String column) {
+      return getLong(getSchema().indexOf(column));
+   }
+
+   public float getFloat(int column) {
+      return store.getFloat(column, index);
+   }
+
+   public float getFloat(String column) {
+      return getFloat(getSchema().indexOf(column));
+   }
+
+   public double getDouble(int column) {
+      return store.getDouble(column, index);
+   }
+
+   public double getDouble(String column) {
+      return getDouble(getSchema().indexOf(column));
+   }
+
+   public Row setInt(int column, int value) {
+      if (owner != null) {
+         owner.setInt(index, column, value);
+      } else {
+         store.putInt(column, index, value);
+      }
+      return this;
+   }
+
+   public Row setInt(String column, int value) {
+      return setInt(getSchema().indexOf(column), value);
+   }
+
+   public Row setLong(int column, long value) {
+      if (owner != null) {
+         owner.setLong(index, column, value);
+      } else {
+         store.putLong(column, index, value);
+      }
+      return this;
+   }
+
+   public Row setLong(String column, long value) {
+      return setLong(getSchema().indexOf(column), value);
+   }
+
+   public Row setFloat(int column, float value) {
+      if (owner != null) {
+         owner.setFloat(index, column, value);
+      } else {
+         store.putFloat(column, index, value);
+      }
+      return this;
+   }
+
+   public Row setFloat(String column, float value) {
+      return setFloat(getSchema().indexOf(column), value);
+   }
+
+   public Row setDouble(int column, double value) {
+      if (owner != null) {
+         owner.setDouble(index, column, value);
+      } else {
+         store.putDouble(column, index, value);
+      }
+      return this;
+   }
+
+   public Row setDouble(String column, double value) {
+      return setDouble(getSchema().indexOf(column), value);
+   }
+
+   /**
+    * @return a detached copy of the current values, stored on the heap
+    */
+   public Row copy() {
+      return store.copyOf(index);
+   }
+
+   boolean isViewOf(ColumnarEventList list) {
+      return owner == list;
+   }
+
+   ColumnStore getStore() {
+      return store;
+   }
+
+   int getIndex() {
+      return index;
+   }
+
+   @Override
+   public boolean equals(Object o) {
+      if (this == o) {
+         return true;
+      }
+      if (!(o instanceof Row)) {
+         return false;
+      }
+      Row that = (Row) o;
+      return getSchema().equals(that.getSchema()) && store.rowEquals(index, that.store, that.index);
+   }
+
+   @Override
+   public int hashCode() {
+      return store.rowHashCode(index);
+   }
+
+   @Override
+   public String toString() {
+      final RecordSchema schema = getSchema();
+      StringBuilder sb = new StringBuilder("Row{");
+      for (int column = 0; column < schema.getColumnCount(); column++) {
+         sb.append(column == 0 ? "" : ", ").append(schema.getColumnName(column)).append('=');
+         switch (schema.getColumnType(column)) {
+            case INT:
+               sb.append(getInt(column));
+               break;
+            case LONG:
+               sb.append(getLong(column));
+               break;
+            case FLOAT:
+               sb.append(getFloat(column));
+               break;
+            default:
+               sb.append(getDouble(column));
+         }
+      }
+      return sb.append('}').toString();
+   }
+}
@@ -0,0 +1,24 @@
+package net.benfro.collections.ingest;
+
+/**
+ * What a {@link ListIngest} does with a mutation submitted while its queue is full
+ */
+public enum BackpressurePolicy {
+
+   /**
+    * The producer waits until the applier has made room
+    */
+   BLOCK,
+
+   /**
+    * The oldest queued mutation is dropped to make room, so producers never wait
+    */
+   DROP_OLDEST,
+
+   /**
+    * A keyed mutation replaces the one still queued for the same key instead of taking a slot, so the queue holds at
+    * most one mutation per key and the list only gets the latest. Producers wait when the queue is full of distinct
+    * keys, and for appends.
+    */
+   COALESCE_BY_KEY
+}
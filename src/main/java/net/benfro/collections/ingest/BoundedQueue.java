@@ -0,0 +1,97 @@
+package net.benfro.collections.ingest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A lock-free bounded multi-producer multi-consumer queue on a ring of slots, after Dmitry Vyukov's bounded MPMC
+ * queue. Every slot carries a sequence number telling whether it is free for the producer or filled for the consumer
+ * at the current lap, so producers and consumers each claim a position with one CAS and never wait for each other.
+ *
+ * @param <T>
+ */
+final class BoundedQueue<T> {
+
+   private final int mask;
+   private final AtomicReferenceArray<T> slots;
+   private final AtomicLongArray sequences;
+   private final AtomicLong head = new AtomicLong();
+   private final AtomicLong tail = new AtomicLong();
+
+   /**
+    * @param capacity rounded up to a power of two
+    */
+   BoundedQueue(int capacity) {
+      final int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+      this.mask = size - 1;
+      this.slots = new AtomicReferenceArray<>(size);
+      this.sequences = new AtomicLongArray(size);
+      for (int i = 0; i < size; i++) {
+         sequences.set(i, i);
+      }
+   }
+
+   int capacity() {
+      return mask + 1;
+   }
+
+   /**
+    * @return <code>false</code> if the queue is full
+    */
+   boolean offer(T element) {
+      long position = tail.get();
+      while (true) {
+         final int slot = (int) (position & mask);
+         final long lag = sequences.get(slot) - position;
+         if (lag == 0) {
+            if (tail.compareAndSet(position, position + 1)) {
+               slots.lazySet(slot, element);
+               sequences.lazySet(slot, position + 1);
+               return true;
+            }
+            position = tail.get();
+         } else if (lag < 0) {
+            return false;
+         } else {
+            position = tail.get();
+         }
+      }
+   }
+
+   /**
+    * @return the oldest element, or <code>null</code> if the queue is empty
+    */
+   T poll() {
+      long position = head.get();
+      while (true) {
+         final int slot = (int) (position & mask);
+         final long lag = sequences.get(slot) - (position + 1);
+         if (lag == 0) {
+            if (head.compareAndSet(position, position + 1)) {
+               final T element = slots.get(slot);
+               slots.lazySet(slot, null);
+               sequences.lazySet(slot, position + mask + 1);
+               return element;
+            }
+            position = head.get();
+         } else if (lag < 0) {
+            return null;
+         } else {
+            position = head.get();
+         }
+      }
+   }
+
+   /**
+    * @return the number of queued elements; only an estimate while producers or consumers are active
+    */
+   int size() {
+      final long size = tail.get() - head.get();
+      return (int) Math.max(0, Math.min(size, capacity()));
+   }
+
+   boolean isEmpty() {
+      return size() == 0;
+   }
+}
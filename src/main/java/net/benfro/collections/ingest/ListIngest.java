@@ -0,0 +1,386 @@
+package net.benfro.collections.ingest;
+
+import com.google.common.base.Preconditions;
+import net.benfro.collections.DefaultObservableList;
+import net.benfro.collections.KeyIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Feeds mutations from any number of producer threads into a {@link DefaultObservableList}. Producers only put the
+ * mutation into a lock-free bounded queue; one applier thread drains it in batches and applies every batch with
+ * {@link DefaultObservableList#batch(java.util.function.Consumer)}, so the write lock is taken once per batch and the
+ * listeners get one event per batch. What happens when the queue is full is set by the {@link BackpressurePolicy}.
+ * <p>
+ * Mutations of one producer are applied in the order they were submitted, unless coalesced. Appends are applied
+ * with one <code>addAll</code> per run of appends. Keyed mutations, {@link #put(Object)} and {@link #remove(Object)},
+ * find their element through a {@link KeyIndex} of the list, created at the first keyed mutation, in O(log n) each.
+ * There is no positional <code>set</code>: the position a producer sees may have shifted before its mutation is
+ * applied, so rows are addressed by key instead.
+ *
+ * @param <E>
+ */
+public final class ListIngest<E> implements AutoCloseable {
+
+   public static final int DEFAULT_CAPACITY = 8192;
+   public static final int DEFAULT_MAX_BATCH_SIZE = 1024;
+
+   private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+   private static final AtomicInteger INGEST_IDS = new AtomicInteger();
+
+   public static <T> Builder<T> builder(DefaultObservableList<T> list) {
+      return new Builder<>(list);
+   }
+
+   public static final class Builder<T> {
+      private final DefaultObservableList<T> list;
+      private int capacity = DEFAULT_CAPACITY;
+      private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+      private BackpressurePolicy policy = BackpressurePolicy.BLOCK;
+      private Function<? super T, ?> keyExtractor = Function.identity();
+
+      private Builder(DefaultObservableList<T> list) {
+         this.list = Objects.requireNonNull(list);
+      }
+
+      /**
+       * @param capacity the number of queued mutations, rounded up to a power of two
+       */
+      public Builder<T> capacity(int capacity) {
+         Preconditions.checkArgument(capacity > 0, "capacity must be positive: %s", capacity);
+         this.capacity = capacity;
+         return this;
+      }
+
+      /**
+       * @param maxBatchSize the largest number of mutations applied under one write lock
+       */
+      public Builder<T> maxBatchSize(int maxBatchSize) {
+         Preconditions.checkArgument(maxBatchSize > 0, "maxBatchSize must be positive: %s", maxBatchSize);
+         this.maxBatchSize = maxBatchSize;
+         return this;
+      }
+
+      public Builder<T> policy(BackpressurePolicy policy) {
+         this.policy = Objects.requireNonNull(policy);
+         return this;
+      }
+
+      /**
+       * @param keyExtractor the key identifying the element a keyed mutation applies to; the element itself by
+       *                     default
+       */
+      public Builder<T> keyedBy(Function<? super T, ?> keyExtractor) {
+         this.keyExtractor = Objects.requireNonNull(keyExtractor);
+         return this;
+      }
+
+      /**
+       * Creates the ingest and starts its applier thread
+       */
+      public ListIngest<T> build() {
+         return new ListIngest<>(this);
+      }
+   }
+
+   private enum Kind {
+      ADD, PUT, REMOVE, QUEUED_KEY
+   }
+
+   private static final class Mutation<E> {
+      private final Kind kind;
+      private final E element;
+      private final Object key;
+
+      Mutation(Kind kind, E element, Object key) {
+         this.kind = kind;
+         this.element = element;
+         this.key = key;
+      }
+   }
+
+   private final DefaultObservableList<E> list;
+   private final BackpressurePolicy policy;
+   private final Function<? super E, ?> keyExtractor;
+   private final int maxBatchSize;
+   private final BoundedQueue<Mutation<E>> queue;
+   private final Map<Object, Mutation<E>> queuedByKey = new ConcurrentHashMap<>();
+   private final Thread applier;
+   private KeyIndex<E> keyIndex;
+   private volatile boolean sleeping;
+   private volatile boolean closed;
+   private final AtomicInteger inFlight = new AtomicInteger();
+
+   private final LongAdder submitted = new LongAdder();
+   private final LongAdder dropped = new LongAdder();
+   private final LongAdder coalesced = new LongAdder();
+   private volatile long applied;
+   private volatile long failed;
+   private volatile long batchCount;
+   private volatile int lastBatchSize;
+   private volatile int largestBatchSize;
+   private volatile int peakQueueDepth;
+
+   private ListIngest(Builder<E> builder) {
+      this.list = builder.list;
+      this.policy = builder.policy;
+      this.keyExtractor = builder.keyExtractor;
+      this.maxBatchSize = builder.maxBatchSize;
+      this.queue = new BoundedQueue<>(builder.capacity);
+      this.applier = new Thread(this::run, "ListIngest-applier-" + INGEST_IDS.incrementAndGet());
+      this.applier.setDaemon(true);
+      this.applier.start();
+   }
+
+   /**
+    * Appends the element to the list
+    */
+   public void add(E element) {
+      submit(new Mutation<>(Kind.ADD, element, null));
+   }
+
+   /**
+    * Replaces the first element with the same key as the given one, or appends it if there is none
+    */
+   public void put(E element) {
+      submit(new Mutation<>(Kind.PUT, element, keyExtractor.apply(element)));
+   }
+
+   /**
+    * Removes the first element with the same key as the given one, if there is one
+    */
+   public void remove(E element) {
+      submit(new Mutation<>(Kind.REMOVE, element, keyExtractor.apply(element)));
+   }
+
+   private void submit(Mutation<E> mutation) {
+      // the applier does not stop before every producer that got past the check has enqueued
+      inFlight.incrementAndGet();
+      try {
+         Preconditions.checkState(!closed, "The ingest is closed");
+         submitted.increment();
+         enqueue(mutation);
+      } finally {
+         inFlight.decrementAndGet();
+         if (sleeping || closed) {
+            LockSupport.unpark(applier);
+         }
+      }
+   }
+
+   private void enqueue(Mutation<E> mutation) {
+      if (policy == BackpressurePolicy.COALESCE_BY_KEY && mutation.key != null) {
+         // only the producer finding no queued mutation for the key takes a slot, the applier reads the latest
+         if (queuedByKey.put(mutation.key, mutation) != null) {
+            coalesced.increment();
+            return;
+         }
+         mutation = new Mutation<>(Kind.QUEUED_KEY, null, mutation.key);
+      }
+      long backoff = 1;
+      while (!queue.offer(mutation)) {
+         if (policy == BackpressurePolicy.DROP_OLDEST) {
+            if (queue.poll() != null) {
+               dropped.increment();
+            }
+         } else {
+            LockSupport.parkNanos(this, backoff);
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+         }
+      }
+   }
+
+   private void run() {
+      final List<Mutation<E>> batch = new ArrayList<>(maxBatchSize);
+      while (true) {
+         drainTo(batch);
+         if (!batch.isEmpty()) {
+            apply(batch);
+            batch.clear();
+         } else if (closed) {
+            if (inFlight.get() == 0 && queue.isEmpty()) {
+               if (keyIndex != null) {
+                  keyIndex.close();
+               }
+               return;
+            }
+            Thread.yield();
+         } else {
+            // producers unpark the applier after enqueuing when they see it sleeping
+            sleeping = true;
+            if (queue.isEmpty() && !closed) {
+               LockSupport.park(this);
+            }
+            sleeping = false;
+         }
+      }
+   }
+
+   private void drainTo(List<Mutation<E>> batch) {
+      final int depth = queue.size();
+      if (depth > peakQueueDepth) {
+         peakQueueDepth = depth;
+      }
+      Mutation<E> mutation;
+      while (batch.size() < maxBatchSize && (mutation = queue.poll()) != null) {
+         if (mutation.kind == Kind.QUEUED_KEY) {
+            mutation = queuedByKey.remove(mutation.key);
+         }
+         if (mutation != null) {
+            batch.add(mutation);
+         }
+      }
+   }
+
+   private void apply(List<Mutation<E>> batch) {
+      try {
+         list.batch(target -> {
+            int start = 0;
+            while (start < batch.size()) {
+               final boolean appending = batch.get(start).kind == Kind.ADD;
+               int end = start + 1;
+               while (end < batch.size() && (batch.get(end).kind == Kind.ADD) == appending) {
+                  end++;
+               }
+               if (appending) {
+                  append(target, batch.subList(start, end));
+               } else {
+                  applyKeyed(target, batch.subList(start, end));
+               }
+               start = end;
+            }
+         });
+      } catch (RuntimeException e) {
+         failed += batch.size();
+         applier.getUncaughtExceptionHandler().uncaughtException(applier, e);
+         return;
+      }
+      applied += batch.size();
+      batchCount++;
+      lastBatchSize = batch.size();
+      if (batch.size() > largestBatchSize) {
+         largestBatchSize = batch.size();
+      }
+   }
+
+   private void append(List<E> target, List<Mutation<E>> run) {
+      final List<E> elements = new ArrayList<>(run.size());
+      for (Mutation<E> mutation : run) {
+         elements.add(mutation.element);
+      }
+      target.addAll(elements);
+   }
+
+   private void applyKeyed(List<E> target, List<Mutation<E>> run) {
+      if (keyIndex == null) {
+         keyIndex = list.indexBy(keyExtractor);
+      }
+      for (Mutation<E> mutation : run) {
+         final int index = keyIndex.indexOfKey(mutation.element);
+         if (mutation.kind == Kind.REMOVE) {
+            if (index >= 0) {
+               target.remove(index);
+            }
+         } else if (index >= 0) {
+            target.set(index, mutation.element);
+         } else {
+            target.add(mutation.element);
+         }
+      }
+   }
+
+   /**
+    * @return the number of mutations waiting in the queue
+    */
+   public int getQueueDepth() {
+      return queue.size();
+   }
+
+   /**
+    * @return the deepest the queue was seen by the applier
+    */
+   public int getPeakQueueDepth() {
+      return peakQueueDepth;
+   }
+
+   public int getCapacity() {
+      return queue.capacity();
+   }
+
+   /**
+    * @return the number of mutations submitted, including dropped and coalesced ones
+    */
+   public long getSubmittedCount() {
+      return submitted.sum();
+   }
+
+   /**
+    * @return the number of mutations dropped by {@link BackpressurePolicy#DROP_OLDEST}
+    */
+   public long getDroppedCount() {
+      return dropped.sum();
+   }
+
+   /**
+    * @return the number of mutations replaced by a later one for the same key, see
+    * {@link BackpressurePolicy#COALESCE_BY_KEY}
+    */
+   public long getCoalescedCount() {
+      return coalesced.sum();
+   }
+
+   /**
+    * @return the number of mutations applied to the list
+    */
+   public long getAppliedCount() {
+      return applied;
+   }
+
+   /**
+    * @return the number of mutations in batches that failed with an exception, which is passed to the uncaught
+    * exception handler of the applier thread; the changes made before it are kept
+    */
+   public long getFailedCount() {
+      return failed;
+   }
+
+   /**
+    * @return the number of batches applied, each under one write lock
+    */
+   public long getBatchCount() {
+      return batchCount;
+   }
+
+   public int getLastBatchSize() {
+      return lastBatchSize;
+   }
+
+   public int getLargestBatchSize() {
+      return largestBatchSize;
+   }
+
+   public double getAverageBatchSize() {
+      final long batches = batchCount;
+      return batches == 0 ? 0 : (double) applied / batches;
+   }
+
+   /**
+    * Stops accepting mutations and waits until all submitted ones have been applied, including those of producers
+    * still waiting for room in the queue
+    */
+   @Override
+   public void close() throws InterruptedException {
+      closed = true;
+      LockSupport.unpark(applier);
+      applier.join();
+   }
+}
@@ -0,0 +1,244 @@
+package net.benfro.collections.mapped;
+
+import ca.odell.glazedlists.AbstractEventList;
+import ca.odell.glazedlists.util.concurrent.LockFactory;
+import com.google.common.base.Preconditions;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An append-only {@link ca.odell.glazedlists.EventList} whose elements are decoded on access from a memory-mapped
+ * data file. A second, index file holds the number of records followed by the end offset of every record, so opening
+ * a list maps both files without reading them, and the operating system shares the cached pages between all
+ * processes reading the same files. Appended elements are written through the mapping and reported as inserted;
+ * {@link #flush()} forces them to disk. The data file is limited to 2GB.
+ * <p>
+ * A list opened with {@link #openReadOnly(Path, RecordCodec)} maps the files as they are, read-only, so they may be
+ * read-only files or shared with a process appending to them; it sees the records written before it was opened.
+ * <p>
+ * Elements are decoded on every {@link #get(int)}. Like {@link ca.odell.glazedlists.BasicEventList} the list does
+ * not lock itself, and the files must not be written by more than one list at a time.
+ *
+ * @param <E> the element type
+ */
+public class MappedEventList<E> extends AbstractEventList<E> implements RandomAccess, Closeable {
+
+   public static final String INDEX_SUFFIX = ".idx";
+
+   private static final int HEADER_BYTES = Long.BYTES;
+   private static final int INITIAL_RECORDS = 1024;
+   private static final int INITIAL_DATA_BYTES = 64 * 1024;
+
+   /**
+    * Opens the list stored in the data file and its index file next to it, creating both if they do not exist
+    */
+   public static <E> MappedEventList<E> open(Path dataFile, RecordCodec<E> codec) throws IOException {
+      return open(dataFile, codec, false, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+   }
+
+   /**
+    * Opens the list stored in the data file and its index file next to it for reading only. The files are neither
+    * created nor resized, and appending throws {@link UnsupportedOperationException}.
+    *
+    * @throws java.nio.file.NoSuchFileException if one of the files does not exist
+    */
+   public static <E> MappedEventList<E> openReadOnly(Path dataFile, RecordCodec<E> codec) throws IOException {
+      return open(dataFile, codec, true, StandardOpenOption.READ);
+   }
+
+   private static <E> MappedEventList<E> open(Path dataFile, RecordCodec<E> codec, boolean readOnly,
+                                             StandardOpenOption... options) throws IOException {
+      final Path indexFile = dataFile.resolveSibling(dataFile.getFileName() + INDEX_SUFFIX);
+      final FileChannel dataChannel = FileChannel.open(dataFile, options);
+      try {
+         final FileChannel indexChannel = FileChannel.open(indexFile, options);
+         try {
+            return new MappedEventList<>(codec, dataChannel, indexChannel, readOnly);
+         } catch (IOException | RuntimeException e) {
+            indexChannel.close();
+            throw e;
+         }
+      } catch (IOException | RuntimeException e) {
+         dataChannel.close();
+         throw e;
+      }
+   }
+
+   private final RecordCodec<E> codec;
+   private final FileChannel dataChannel;
+   private final FileChannel indexChannel;
+   private final boolean readOnly;
+   private volatile MappedByteBuffer data;
+   private volatile MappedByteBuffer index;
+   private volatile int size;
+
+   private MappedEventList(RecordCodec<E> codec, FileChannel dataChannel, FileChannel indexChannel, boolean readOnly)
+           throws IOException {
+      super(null);
+      this.readWriteLock = LockFactory.DEFAULT.createReadWriteLock();
+      this.codec = codec;
+      this.dataChannel = dataChannel;
+      this.indexChannel = indexChannel;
+      this.readOnly = readOnly;
+      if (readOnly) {
+         this.index = map(indexChannel, indexChannel.size(), FileChannel.MapMode.READ_ONLY);
+         this.data = map(dataChannel, dataChannel.size(), FileChannel.MapMode.READ_ONLY);
+         this.size = index.capacity() < HEADER_BYTES ? 0 : (int) index.getLong(0);
+      } else {
+         final long indexBytes = HEADER_BYTES + (long) INITIAL_RECORDS * Long.BYTES;
+         this.index = map(indexChannel, Math.max(indexChannel.size(), indexBytes), FileChannel.MapMode.READ_WRITE);
+         this.data = map(dataChannel, Math.max(dataChannel.size(), INITIAL_DATA_BYTES), FileChannel.MapMode.READ_WRITE);
+         this.size = (int) index.getLong(0);
+      }
+   }
+
+   /**
+    * @return <code>true</code> if the list was opened by {@link #openReadOnly(Path, RecordCodec)}
+    */
+   public boolean isReadOnly() {
+      return readOnly;
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   @Override
+   public E get(int i) {
+      Preconditions.checkElementIndex(i, size);
+      final ByteBuffer record = data.duplicate();
+      record.limit((int) end(i)).position((int) start(i));
+      return codec.decode(record.slice());
+   }
+
+   /**
+    * Appends the element; other indices are not supported
+    */
+   @Override
+   public void add(int i, E element) {
+      if (i != size) {
+         throw new UnsupportedOperationException("A MappedEventList can only be appended to");
+      }
+      append(element);
+      updates.beginEvent();
+      updates.elementInserted(i, element);
+      updates.commitEvent();
+   }
+
+   /**
+    * Appends all elements, notifying the listeners once
+    */
+   @Override
+   public boolean addAll(Collection<? extends E> elements) {
+      final List<E> appended = new ArrayList<>(elements);
+      final int first = size;
+      appended.forEach(this::append);
+      updates.beginEvent();
+      for (int i = 0; i < appended.size(); i++) {
+         updates.elementInserted(first + i, appended.get(i));
+      }
+      updates.commitEvent();
+      return !appended.isEmpty();
+   }
+
+   @Override
+   public boolean addAll(int i, Collection<? extends E> elements) {
+      if (i != size) {
+         throw new UnsupportedOperationException("A MappedEventList can only be appended to");
+      }
+      return addAll(elements);
+   }
+
+   /**
+    * Forces the appended records to disk
+    */
+   public void flush() {
+      if (!readOnly) {
+         data.force();
+         index.force();
+      }
+   }
+
+   @Override
+   public void close() throws IOException {
+      flush();
+      try {
+         dataChannel.close();
+      } finally {
+         indexChannel.close();
+      }
+   }
+
+   @Override
+   public void dispose() {
+      try {
+         close();
+      } catch (IOException e) {
+         throw new UncheckedIOException(e);
+      }
+   }
+
+   private void append(E element) {
+      if (readOnly) {
+         throw new UnsupportedOperationException("The MappedEventList was opened read-only");
+      }
+      final byte[] record = codec.encode(element);
+      final long start = size == 0 ? 0 : end(size - 1);
+      final long end = start + record.length;
+      ensureDataCapacity(end);
+      ensureIndexCapacity(size + 1);
+
+      final ByteBuffer target = data.duplicate();
+      target.position((int) start);
+      target.put(record);
+      index.putLong(HEADER_BYTES + size * Long.BYTES, end);
+      index.putLong(0, size + 1);
+      size++;
+   }
+
+   private long start(int i) {
+      return i == 0 ? 0 : end(i - 1);
+   }
+
+   private long end(int i) {
+      return index.getLong(HEADER_BYTES + i * Long.BYTES);
+   }
+
+   private void ensureDataCapacity(long required) {
+      if (required > data.capacity()) {
+         Preconditions.checkState(required <= Integer.MAX_VALUE, "The data file of a MappedEventList is limited to 2GB");
+         data = remap(dataChannel, Math.min(Integer.MAX_VALUE, Math.max(required, data.capacity() * 3L / 2)));
+      }
+   }
+
+   private void ensureIndexCapacity(int records) {
+      final long required = HEADER_BYTES + (long) records * Long.BYTES;
+      if (required > index.capacity()) {
+         index = remap(indexChannel, Math.max(required, index.capacity() * 3L / 2));
+      }
+   }
+
+   private static MappedByteBuffer remap(FileChannel channel, long bytes) {
+      try {
+         return map(channel, bytes, FileChannel.MapMode.READ_WRITE);
+      } catch (IOException e) {
+         throw new UncheckedIOException(e);
+      }
+   }
+
+   private static MappedByteBuffer map(FileChannel channel, long bytes, FileChannel.MapMode mode) throws IOException {
+      return channel.map(mode, 0, bytes);
+   }
+}
@@ -0,0 +1,36 @@
+package net.benfro.collections.mapped;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts the elements of a {@link MappedEventList} to and from their binary records
+ *
+ * @param <E> the element type
+ */
+public interface RecordCodec<E> {
+
+   /**
+    * @return a codec storing strings as UTF-8
+    */
+   static RecordCodec<String> utf8() {
+      return new RecordCodec<String>() {
+         @Override
+         public byte[] encode(String element) {
+            return element.getBytes(StandardCharsets.UTF_8);
+         }
+
+         @Override
+         public String decode(ByteBuffer record) {
+            return StandardCharsets.UTF_8.decode(record).toString();
+         }
+      };
+   }
+
+   byte[] encode(E element);
+
+   /**
+    * @param record a buffer holding exactly the bytes of one record, from its position to its limit
+    */
+   E decode(ByteBuffer record);
+}
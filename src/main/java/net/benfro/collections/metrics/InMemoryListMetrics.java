@@ -0,0 +1,196 @@
+package net.benfro.collections.metrics;
+
+import com.google.common.collect.MapMaker;
+import org.jdesktop.observablecollections.ObservableListListener;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A {@link ListMetrics} sink keeping counters and {@link LatencyHistogram}s in memory. It can be shared by several
+ * lists, or given one per list and registered under the list's name to tell the lists apart over JMX. Listeners are
+ * held weakly and identified by class name and identity hash code.
+ */
+public class InMemoryListMetrics implements ListMetrics, InMemoryListMetricsMXBean {
+
+   private static final String DOMAIN = "net.benfro.collections";
+
+   private final Map<Mutation, LongAdder> mutations = new EnumMap<>(Mutation.class);
+   private final LatencyHistogram translations = new LatencyHistogram();
+   private final ConcurrentMap<ObservableListListener, LatencyHistogram> listeners = new MapMaker().weakKeys().makeMap();
+   private final Map<LockType, LatencyHistogram> lockWaits = new EnumMap<>(LockType.class);
+   private final Map<LockType, LatencyHistogram> lockHolds = new EnumMap<>(LockType.class);
+
+   private ObjectName objectName;
+
+   public InMemoryListMetrics() {
+      for (Mutation mutation : Mutation.values()) {
+         mutations.put(mutation, new LongAdder());
+      }
+      for (LockType type : LockType.values()) {
+         lockWaits.put(type, new LatencyHistogram());
+         lockHolds.put(type, new LatencyHistogram());
+      }
+   }
+
+   /**
+    * Registers this sink with the platform MBean server as
+    * <code>net.benfro.collections:type=ListMetrics,name=&lt;name&gt;</code>
+    *
+    * @param name a name telling the list, or group of lists, apart
+    * @return this
+    */
+   public synchronized InMemoryListMetrics register(String name) {
+      try {
+         ObjectName newName = new ObjectName(DOMAIN + ":type=ListMetrics,name=" + ObjectName.quote(name));
+         ManagementFactory.getPlatformMBeanServer().registerMBean(this, newName);
+         objectName = newName;
+         return this;
+      } catch (JMException e) {
+         throw new IllegalStateException("Could not register list metrics as " + name, e);
+      }
+   }
+
+   public synchronized void unregister() {
+      if (objectName != null) {
+         try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+         } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister list metrics " + objectName, e);
+         } finally {
+            objectName = null;
+         }
+      }
+   }
+
+   @Override
+   public void mutated(Mutation mutation, int elements) {
+      mutations.get(mutation).add(elements);
+   }
+
+   @Override
+   public void eventTranslated(long nanos) {
+      translations.record(nanos);
+   }
+
+   @Override
+   public void listenerNotified(ObservableListListener listener, long nanos) {
+      listeners.computeIfAbsent(listener, l -> new LatencyHistogram()).record(nanos);
+   }
+
+   @Override
+   public void lockAcquired(LockType type, long waitNanos) {
+      lockWaits.get(type).record(waitNanos);
+   }
+
+   @Override
+   public void lockReleased(LockType type, long holdNanos) {
+      lockHolds.get(type).record(holdNanos);
+   }
+
+   public long getMutationCount(Mutation mutation) {
+      return mutations.get(mutation).sum();
+   }
+
+   public LatencyHistogram getEventTranslations() {
+      return translations;
+   }
+
+   /**
+    * @return the latencies of the given listener, or <code>null</code> if it has not been called
+    */
+   public LatencyHistogram getListenerLatencies(ObservableListListener listener) {
+      return listeners.get(listener);
+   }
+
+   public LatencyHistogram getLockWaits(LockType type) {
+      return lockWaits.get(type);
+   }
+
+   public LatencyHistogram getLockHolds(LockType type) {
+      return lockHolds.get(type);
+   }
+
+   @Override
+   public Map<String, Long> getMutationCounts() {
+      Map<String, Long> counts = new TreeMap<>();
+      mutations.forEach((mutation, count) -> counts.put(mutation.name(), count.sum()));
+      return counts;
+   }
+
+   @Override
+   public long getEventCount() {
+      return translations.getCount();
+   }
+
+   @Override
+   public double getEventTranslationMillisP50() {
+      return toMillis(translations.getPercentile(50));
+   }
+
+   @Override
+   public double getEventTranslationMillisP99() {
+      return toMillis(translations.getPercentile(99));
+   }
+
+   @Override
+   public double getEventTranslationMillisMax() {
+      return toMillis(translations.getMax());
+   }
+
+   @Override
+   public Map<String, Long> getListenerEventCounts() {
+      Map<String, Long> counts = new TreeMap<>();
+      listeners.forEach((listener, histogram) -> counts.put(describe(listener), histogram.getCount()));
+      return counts;
+   }
+
+   @Override
+   public Map<String, Double> getListenerLatencyMillisP99() {
+      Map<String, Double> latencies = new TreeMap<>();
+      listeners.forEach((listener, histogram) -> latencies.put(describe(listener), toMillis(histogram.getPercentile(99))));
+      return latencies;
+   }
+
+   @Override
+   public Map<String, Double> getLockWaitMillisP99() {
+      return byLockType(lockWaits, h -> toMillis(h.getPercentile(99)));
+   }
+
+   @Override
+   public Map<String, Double> getLockHoldMillisP99() {
+      return byLockType(lockHolds, h -> toMillis(h.getPercentile(99)));
+   }
+
+   @Override
+   public void reset() {
+      mutations.values().forEach(LongAdder::reset);
+      translations.reset();
+      listeners.clear();
+      lockWaits.values().forEach(LatencyHistogram::reset);
+      lockHolds.values().forEach(LatencyHistogram::reset);
+   }
+
+   private static Map<String, Double> byLockType(Map<LockType, LatencyHistogram> histograms,
+                                                 ToDoubleFunction<LatencyHistogram> value) {
+      Map<String, Double> values = new TreeMap<>();
+      histograms.forEach((type, histogram) -> values.put(type.name(), value.applyAsDouble(histogram)));
+      return values;
+   }
+
+   private static String describe(ObservableListListener listener) {
+      return listener.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(listener));
+   }
+
+   private static double toMillis(long nanos) {
+      return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+   }
+}
@@ -0,0 +1,29 @@
+package net.benfro.collections.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of an {@link InMemoryListMetrics}. Durations are reported in milliseconds.
+ */
+public interface InMemoryListMetricsMXBean {
+
+   Map<String, Long> getMutationCounts();
+
+   long getEventCount();
+
+   double getEventTranslationMillisP50();
+
+   double getEventTranslationMillisP99();
+
+   double getEventTranslationMillisMax();
+
+   Map<String, Long> getListenerEventCounts();
+
+   Map<String, Double> getListenerLatencyMillisP99();
+
+   Map<String, Double> getLockWaitMillisP99();
+
+   Map<String, Double> getLockHoldMillisP99();
+
+   void reset();
+}
@@ -0,0 +1,69 @@
+package net.benfro.collections.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock free histogram of durations in nanoseconds with one bucket per power of two. Percentiles are reported as
+ * the upper bound of the bucket they fall in, so they are accurate within a factor of two.
+ */
+public class LatencyHistogram {
+
+   private static final int BUCKETS = 64;
+
+   private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+   private final LongAdder count = new LongAdder();
+   private final LongAdder total = new LongAdder();
+   private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+   public void record(long nanos) {
+      final long value = Math.max(0L, nanos);
+      buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(value) - (value == 0 ? 0 : 1));
+      count.increment();
+      total.add(value);
+      max.accumulate(value);
+   }
+
+   public long getCount() {
+      return count.sum();
+   }
+
+   public long getMax() {
+      return max.get();
+   }
+
+   public double getMean() {
+      final long n = count.sum();
+      return n == 0 ? 0.0 : (double) total.sum() / n;
+   }
+
+   /**
+    * @param percentile between 0 and 100
+    * @return the upper bound, in nanoseconds, of the bucket holding the given percentile, or 0 if empty
+    */
+   public long getPercentile(double percentile) {
+      final long n = count.sum();
+      if (n == 0) {
+         return 0L;
+      }
+      final long rank = (long) Math.ceil(n * percentile / 100.0);
+      long seen = 0;
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+         seen += buckets.get(bucket);
+         if (seen >= rank) {
+            return Math.min(bucket == 63 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1, getMax());
+         }
+      }
+      return getMax();
+   }
+
+   public void reset() {
+      for (int bucket = 0; bucket < BUCKETS; bucket++) {
+         buckets.set(bucket, 0L);
+      }
+      count.reset();
+      total.reset();
+      max.reset();
+   }
+}
@@ -0,0 +1,74 @@
+package net.benfro.collections.metrics;
+
+/**
+ * Emits Java Flight Recorder events for list changes and write lock hold periods. The JFR implementation is only
+ * built and found on JDKs providing <code>jdk.jfr</code>; elsewhere a no-op implementation is used.
+ * <p>
+ * The <code>begin</code> methods return <code>null</code> when the event type is not being recorded, so callers can
+ * skip collecting the event fields, and nothing is allocated. Passing <code>null</code> to the matching
+ * <code>commit</code> method is allowed and does nothing.
+ */
+public abstract class ListFlightRecorder {
+
+   private static final String JFR_IMPLEMENTATION = "net.benfro.collections.jfr.JfrListFlightRecorder";
+   private static final ListFlightRecorder INSTANCE = load();
+
+   public static ListFlightRecorder get() {
+      return INSTANCE;
+   }
+
+   private static ListFlightRecorder load() {
+      try {
+         return (ListFlightRecorder) Class.forName(JFR_IMPLEMENTATION).getDeclaredConstructor().newInstance();
+      } catch (ReflectiveOperationException | LinkageError e) {
+         return new Disabled();
+      }
+   }
+
+   /**
+    * @return a started "ObservableList change dispatched" event, or <code>null</code> if it is not recorded
+    */
+   public abstract Object beginChangeDispatch();
+
+   public abstract void commitChangeDispatch(Object event, String listId, String eventType, int blockCount,
+                                             int elementCount, int listenerCount);
+
+   /**
+    * @return a started "write lock held" event for the current thread, or <code>null</code> if it is not recorded
+    */
+   public abstract Object beginWriteLockHold();
+
+   public abstract void commitWriteLockHold(Object event, String listId, String operation);
+
+   /**
+    * @return whether "write lock held" events are currently recorded
+    */
+   public abstract boolean recordsWriteLockHolds();
+
+   private static final class Disabled extends ListFlightRecorder {
+
+      @Override
+      public Object beginChangeDispatch() {
+         return null;
+      }
+
+      @Override
+      public void commitChangeDispatch(Object event, String listId, String eventType, int blockCount,
+                                       int elementCount, int listenerCount) {
+      }
+
+      @Override
+      public Object beginWriteLockHold() {
+         return null;
+      }
+
+      @Override
+      public void commitWriteLockHold(Object event, String listId, String operation) {
+      }
+
+      @Override
+      public boolean recordsWriteLockHolds() {
+         return false;
+      }
+   }
+}
@@ -0,0 +1,71 @@
+package net.benfro.collections.metrics;
+
+import org.jdesktop.observablecollections.ObservableListListener;
+
+/**
+ * Receives measurements from a {@link net.benfro.collections.DefaultObservableList}. All methods do nothing by
+ * default, so a sink only implements what it is interested in.
+ */
+public interface ListMetrics {
+
+   /**
+    * The default sink. It is disabled, so the list neither reads the clock nor allocates anything for it.
+    */
+   ListMetrics NOOP = new ListMetrics() {
+      @Override
+      public boolean isEnabled() {
+         return false;
+      }
+   };
+
+   enum Mutation {
+      ADDED, REMOVED, REPLACED, PROPERTY_CHANGED
+   }
+
+   enum LockType {
+      READ, WRITE
+   }
+
+   /**
+    * @return <code>false</code> if the list should skip all measurements
+    */
+   default boolean isEnabled() {
+      return true;
+   }
+
+   /**
+    * @param mutation the kind of change
+    * @param elements the number of elements affected
+    */
+   default void mutated(Mutation mutation, int elements) {
+   }
+
+   /**
+    * @param nanos the time spent translating and dispatching one GlazedLists list event
+    */
+   default void eventTranslated(long nanos) {
+   }
+
+   /**
+    * @param listener the listener that was called
+    * @param nanos    the time the callback took
+    */
+   default void listenerNotified(ObservableListListener listener, long nanos) {
+   }
+
+   /**
+    * @param type      the kind of lock
+    * @param waitNanos the time spent waiting for the lock
+    */
+   default void lockAcquired(LockType type, long waitNanos) {
+   }
+
+   /**
+    * Only reported when the outermost of nested acquisitions by the same thread is released
+    *
+    * @param type      the kind of lock
+    * @param holdNanos the time the lock was held
+    */
+   default void lockReleased(LockType type, long holdNanos) {
+   }
+}
@@ -0,0 +1,25 @@
+package net.benfro.collections.paged;
+
+import java.util.List;
+
+/**
+ * A source of rows too large to load eagerly, read page by page by a {@link PagedEventList}
+ *
+ * @param <E> the row type
+ */
+public interface PagedDataSource<E> {
+
+   /**
+    * @return the number of rows
+    */
+   int size();
+
+   /**
+    * Loads a range of rows. Called on a loader thread, never while a lock of the list is held.
+    *
+    * @param offset the index of the first row
+    * @param length the number of rows to load
+    * @return exactly <code>length</code> rows
+    */
+   List<E> loadPage(int offset, int length);
+}
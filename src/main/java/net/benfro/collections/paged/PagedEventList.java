@@ -0,0 +1,252 @@
+package net.benfro.collections.paged;
+
+import ca.odell.glazedlists.AbstractEventList;
+import ca.odell.glazedlists.util.concurrent.LockFactory;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * A read-only {@link ca.odell.glazedlists.EventList} over a {@link PagedDataSource}, loading fixed-size pages on
+ * demand. Loaded pages are kept in a bounded LRU cache. {@link #get(int)} of a row whose page is not cached returns a
+ * placeholder and starts loading the page and its neighbours on the loader executor; once a page has arrived an
+ * update event replaces the placeholders handed out for it. Updates carry the old values, so the list can be wrapped
+ * without keeping a copy of its elements, see
+ * {@link net.benfro.collections.DefaultObservableList#ofPaged(PagedEventList)}.
+ * <p>
+ * Pages are applied on the loader thread while holding the write lock; set
+ * {@link net.benfro.collections.DefaultObservableList#EDT_EXECUTOR} as dispatch executor of the wrapping list when it
+ * is bound to Swing components.
+ *
+ * @param <E> the row type
+ */
+public class PagedEventList<E> extends AbstractEventList<E> implements RandomAccess {
+
+   public static final int DEFAULT_CACHED_PAGES = 16;
+
+   /**
+    * The default loader runs at most two page loads at a time and queues a few more; further requests are refused
+    * and asked again when their rows are accessed, so a scan over the whole list cannot flood the source
+    */
+   private static final ThreadPoolExecutor LOADER = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS,
+           new ArrayBlockingQueue<>(DEFAULT_CACHED_PAGES), new ThreadFactoryBuilder()
+           .setNameFormat("PagedEventList-loader-%d")
+           .setDaemon(true)
+           .build());
+
+   static {
+      LOADER.allowCoreThreadTimeOut(true);
+   }
+
+   private final PagedDataSource<E> source;
+   private final int pageSize;
+   private final IntFunction<? extends E> placeholders;
+   private final Executor loader;
+   private final Map<Integer, List<E>> cache;
+   private final Set<Integer> loading = new HashSet<>();
+   private final Set<Integer> served = new HashSet<>();
+   private volatile int size;
+   private int generation;
+
+   public PagedEventList(PagedDataSource<E> source, int pageSize, E placeholder) {
+      this(source, pageSize, DEFAULT_CACHED_PAGES, index -> placeholder, LOADER);
+   }
+
+   /**
+    * @param maxCachedPages the number of pages kept, at least three to hold a page and its neighbours
+    * @param placeholders   creates the placeholder of a row which is not loaded yet
+    * @param loader         runs the calls to {@link PagedDataSource#loadPage(int, int)}; a load it rejects is
+    *                       requested again at the next access to the page
+    */
+   public PagedEventList(PagedDataSource<E> source, int pageSize, int maxCachedPages, IntFunction<? extends E> placeholders, Executor loader) {
+      super(null);
+      Preconditions.checkArgument(pageSize > 0, "The page size must be positive");
+      Preconditions.checkArgument(maxCachedPages >= 3, "At least three pages must be cached");
+      this.readWriteLock = LockFactory.DEFAULT.createReadWriteLock();
+      this.source = source;
+      this.pageSize = pageSize;
+      this.placeholders = placeholders;
+      this.loader = loader;
+      this.cache = new LinkedHashMap<Integer, List<E>>(maxCachedPages * 4 / 3 + 1, 0.75f, true) {
+         @Override
+         protected boolean removeEldestEntry(Map.Entry<Integer, List<E>> eldest) {
+            if (size() > maxCachedPages) {
+               served.remove(eldest.getKey());
+               return true;
+            }
+            return false;
+         }
+      };
+      this.size = source.size();
+   }
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   /**
+    * @return the row, or its placeholder when its page is not loaded yet
+    */
+   @Override
+   public E get(int index) {
+      Preconditions.checkElementIndex(index, size);
+      final int page = index / pageSize;
+      synchronized (cache) {
+         final List<E> rows = cache.get(page);
+         if (rows != null) {
+            return rows.get(index - page * pageSize);
+         }
+         served.add(page);
+      }
+      // neighbours are only prefetched along with a new load, not on every access to a page in flight
+      if (request(page)) {
+         if (page > 0) {
+            request(page - 1);
+         }
+         if ((page + 1) * pageSize < size) {
+            request(page + 1);
+         }
+      }
+      return placeholders.apply(index);
+   }
+
+   /**
+    * @return <code>true</code> if the row is loaded
+    */
+   public boolean isLoaded(int index) {
+      synchronized (cache) {
+         return cache.containsKey(index / pageSize);
+      }
+   }
+
+   public int getPageSize() {
+      return pageSize;
+   }
+
+   /**
+    * Drops all cached pages and reads the size of the source again. Rows added or removed at the end are reported
+    * as inserted or deleted, rows which were visible are reported as updated and are loaded again when accessed.
+    */
+   public void refresh() {
+      final int newSize = source.size();
+      getReadWriteLock().writeLock().lock();
+      try {
+         final List<Integer> visiblePages;
+         synchronized (cache) {
+            generation++;
+            visiblePages = new ArrayList<>(served);
+            visiblePages.addAll(cache.keySet());
+            cache.clear();
+            loading.clear();
+            served.clear();
+         }
+         final int oldSize = size;
+         size = newSize;
+
+         updates.beginEvent();
+         for (int index = oldSize - 1; index >= newSize; index--) {
+            updates.elementDeleted(index, placeholders.apply(index));
+         }
+         for (int page : new HashSet<>(visiblePages)) {
+            final int end = Math.min((page + 1) * pageSize, Math.min(oldSize, newSize));
+            for (int index = page * pageSize; index < end; index++) {
+               updates.elementUpdated(index, placeholders.apply(index), placeholders.apply(index));
+            }
+         }
+         for (int index = oldSize; index < newSize; index++) {
+            updates.elementInserted(index, placeholders.apply(index));
+         }
+         updates.commitEvent();
+      } finally {
+         getReadWriteLock().writeLock().unlock();
+      }
+   }
+
+   @Override
+   public void dispose() {
+      synchronized (cache) {
+         generation++;
+         cache.clear();
+         loading.clear();
+         served.clear();
+      }
+   }
+
+   /**
+    * @return <code>true</code> if a load of the page was started
+    */
+   private boolean request(int page) {
+      final int requestGeneration;
+      synchronized (cache) {
+         if (cache.containsKey(page) || !loading.add(page)) {
+            return false;
+         }
+         requestGeneration = generation;
+      }
+      try {
+         loader.execute(() -> load(page, requestGeneration));
+         return true;
+      } catch (RejectedExecutionException e) {
+         synchronized (cache) {
+            loading.remove(page);
+         }
+         return false;
+      }
+   }
+
+   private void load(int page, int requestGeneration) {
+      final int offset = page * pageSize;
+      final int length = Math.min(pageSize, size - offset);
+      if (length <= 0) {
+         synchronized (cache) {
+            loading.remove(page);
+         }
+         return;
+      }
+      final List<E> rows;
+      try {
+         rows = new ArrayList<>(source.loadPage(offset, length));
+      } catch (RuntimeException e) {
+         synchronized (cache) {
+            loading.remove(page);
+         }
+         throw e;
+      }
+
+      getReadWriteLock().writeLock().lock();
+      try {
+         final boolean visible;
+         synchronized (cache) {
+            if (requestGeneration != generation) {
+               return;
+            }
+            loading.remove(page);
+            visible = served.contains(page);
+            cache.put(page, rows);
+         }
+         if (visible) {
+            updates.beginEvent();
+            for (int i = 0; i < rows.size(); i++) {
+               updates.elementUpdated(offset + i, placeholders.apply(offset + i), rows.get(i));
+            }
+            updates.commitEvent();
+         }
+      } finally {
+         getReadWriteLock().writeLock().unlock();
+      }
+   }
+}
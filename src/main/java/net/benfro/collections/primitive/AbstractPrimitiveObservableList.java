@@ -0,0 +1,66 @@
+package net.benfro.collections.primitive;
+
+import com.google.common.collect.Lists;
+import org.jdesktop.observablecollections.ObservableList;
+import org.jdesktop.observablecollections.ObservableListListener;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Base class of the observable lists storing their values in primitive arrays. Subclasses offer unboxed accessors;
+ * values are only boxed by the {@link List} methods, and for the listener callbacks when listeners are attached.
+ * Like a plain {@link java.util.ArrayList} these lists are not thread safe.
+ *
+ * @param <E> the boxed element type
+ */
+public abstract class AbstractPrimitiveObservableList<E> extends AbstractList<E> implements ObservableList<E>, RandomAccess {
+
+   private final List<ObservableListListener> observableListListeners = Lists.newCopyOnWriteArrayList();
+
+   protected int size;
+
+   @Override
+   public int size() {
+      return size;
+   }
+
+   @Override
+   public boolean supportsElementPropertyChanged() {
+      return false;
+   }
+
+   @Override
+   public void addObservableListListener(ObservableListListener observableListListener) {
+      observableListListeners.add(observableListListener);
+   }
+
+   @Override
+   public void removeObservableListListener(ObservableListListener observableListListener) {
+      observableListListeners.remove(observableListListener);
+   }
+
+   /**
+    * @return <code>true</code> if there is anyone to box values for
+    */
+   protected boolean hasListeners() {
+      return !observableListListeners.isEmpty();
+   }
+
+   protected void fireElementsAdded(int index, int length) {
+      observableListListeners.forEach(l -> l.listElementsAdded(this, index, length));
+   }
+
+   protected void fireElementsRemoved(int index, List<E> oldElements) {
+      observableListListeners.forEach(l -> l.listElementsRemoved(this, index, oldElements));
+   }
+
+   protected void fireElementReplaced(int index, E oldElement) {
+      observableListListeners.forEach(l -> l.listElementReplaced(this, index, oldElement));
+   }
+
+   protected static int grownCapacity(int capacity, int required) {
+      return Math.max(required, capacity + (capacity >> 1) + 1);
+   }
+}
@@ -0,0 +1,176 @@
+package net.benfro.collections.primitive;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An observable list of <code>double</code> values stored in a primitive array. Use the unboxed accessors such as
+ * {@link #getDouble(int)} and {@link #setDouble(int, double)} to avoid boxing; <code>null</code> elements are not
+ * supported.
+ */
+public class DoubleObservableList extends AbstractPrimitiveObservableList<Double> {
+
+   public static DoubleObservableList of(double... values) {
+      DoubleObservableList list = new DoubleObservableList(values.length);
+      list.addAll(values);
+      return list;
+   }
+
+   private double[] data;
+
+   public DoubleObservableList() {
+      this(10);
+   }
+
+   public DoubleObservableList(int initialCapacity) {
+      Preconditions.checkArgument(initialCapacity >= 0, "The initial capacity must not be negative");
+      this.data = new double[initialCapacity];
+   }
+
+   public double getDouble(int index) {
+      Preconditions.checkElementIndex(index, size);
+      return data[index];
+   }
+
+   /**
+    * @return the value previously at the index
+    */
+   public double setDouble(int index, double value) {
+      Preconditions.checkElementIndex(index, size);
+      final double old = data[index];
+      data[index] = value;
+      if (hasListeners()) {
+         fireElementReplaced(index, old);
+      }
+      return old;
+   }
+
+   public void addDouble(double value) {
+      addDouble(size, value);
+   }
+
+   public void addDouble(int index, double value) {
+      Preconditions.checkPositionIndex(index, size);
+      ensureCapacity(size + 1);
+      System.arraycopy(data, index, data, index + 1, size - index);
+      data[index] = value;
+      size++;
+      modCount++;
+      fireElementsAdded(index, 1);
+   }
+
+   /**
+    * Appends all values, notifying the listeners once
+    */
+   public void addAll(double[] values) {
+      addAll(size, values);
+   }
+
+   /**
+    * Inserts all values at the index, notifying the listeners once
+    */
+   public void addAll(int index, double[] values) {
+      Preconditions.checkPositionIndex(index, size);
+      if (values.length == 0) {
+         return;
+      }
+      ensureCapacity(size + values.length);
+      System.arraycopy(data, index, data, index + values.length, size - index);
+      System.arraycopy(values, 0, data, index, values.length);
+      size += values.length;
+      modCount++;
+      fireElementsAdded(index, values.length);
+   }
+
+   /**
+    * @return the removed value
+    */
+   public double removeDouble(int index) {
+      Preconditions.checkElementIndex(index, size);
+      final double old = data[index];
+      System.arraycopy(data, index + 1, data, index, size - index - 1);
+      size--;
+      modCount++;
+      if (hasListeners()) {
+         fireElementsRemoved(index, Collections.singletonList(old));
+      }
+      return old;
+   }
+
+   public double[] toDoubleArray() {
+      return Arrays.copyOf(data, size);
+   }
+
+   public void ensureCapacity(int capacity) {
+      if (capacity > data.length) {
+         data = Arrays.copyOf(data, grownCapacity(data.length, capacity));
+      }
+   }
+
+   @Override
+   public Double get(int index) {
+      return getDouble(index);
+   }
+
+   @Override
+   public Double set(int index, Double element) {
+      return setDouble(index, element);
+   }
+
+   @Override
+   public void add(int index, Double element) {
+      addDouble(index, element);
+   }
+
+   @Override
+   public Double remove(int index) {
+      return removeDouble(index);
+   }
+
+   @Override
+   public boolean addAll(int index, Collection<? extends Double> c) {
+      final double[] values = new double[c.size()];
+      int i = 0;
+      for (Double value : c) {
+         values[i++] = value;
+      }
+      addAll(index, values);
+      return values.length > 0;
+   }
+
+   @Override
+   public boolean addAll(Collection<? extends Double> c) {
+      return addAll(size, c);
+   }
+
+   @Override
+   protected void removeRange(int fromIndex, int toIndex) {
+      Preconditions.checkPositionIndexes(fromIndex, toIndex, size);
+      if (fromIndex == toIndex) {
+         return;
+      }
+      List<Double> removed = null;
+      if (hasListeners()) {
+         removed = new ArrayList<>(toIndex - fromIndex);
+         for (int i = fromIndex; i < toIndex; i++) {
+            removed.add(data[i]);
+         }
+      }
+      System.arraycopy(data, toIndex, data, fromIndex, size - toIndex);
+      size -= toIndex - fromIndex;
+      modCount++;
+      if (removed != null) {
+         fireElementsRemoved(fromIndex, Collections.unmodifiableList(removed));
+      }
+   }
+
+   @Override
+   public void clear() {
+      removeRange(0, size);
+   }
+}
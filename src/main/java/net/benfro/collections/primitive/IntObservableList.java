@@ -0,0 +1,176 @@
+package net.benfro.collections.primitive;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An observable list of <code>int</code> values stored in a primitive array. Use the unboxed accessors such as
+ * {@link #getInt(int)} and {@link #setInt(int, int)} to avoid boxing; <code>null</code> elements are not
+ * supported.
+ */
+public class IntObservableList extends AbstractPrimitiveObservableList<Integer> {
+
+   public static IntObservableList of(int... values) {
+      IntObservableList list = new IntObservableList(values.length);
+      list.addAll(values);
+      return list;
+   }
+
+   private int[] data;
+
+   public IntObservableList() {
+      this(10);
+   }
+
+   public IntObservableList(int initialCapacity) {
+      Preconditions.checkArgument(initialCapacity >= 0, "The initial capacity must not be negative");
+      this.data = new int[initialCapacity];
+   }
+
+   public int getInt(int index) {
+      Preconditions.checkElementIndex(index, size);
+      return data[index];
+   }
+
+   /**
+    * @return the value previously at the index
+    */
+   public int setInt(int index, int value) {
+      Preconditions.checkElementIndex(index, size);
+      final int old = data[index];
+      data[index] = value;
+      if (hasListeners()) {
+         fireElementReplaced(index, old);
+      }
+      return old;
+   }
+
+   public void addInt(int value) {
+      addInt(size, value);
+   }
+
+   public void addInt(int index, int value) {
+      Preconditions.checkPositionIndex(index, size);
+      ensureCapacity(size + 1);
+      System.arraycopy(data, index, data, index + 1, size - index);
+      data[index] = value;
+      size++;
+      modCount++;
+      fireElementsAdded(index, 1);
+   }
+
+   /**
+    * Appends all values, notifying the listeners once
+    */
+   public void addAll(int[] values) {
+      addAll(size, values);
+   }
+
+   /**
+    * Inserts all values at the index, notifying the listeners once
+    */
+   public void addAll(int index, int[] values) {
+      Preconditions.checkPositionIndex(index, size);
+      if (values.length == 0) {
+         return;
+      }
+      ensureCapacity(size + values.length);
+      System.arraycopy(data, index, data, index + values.length, size - index);
+      System.arraycopy(values, 0, data, index, values.length);
+      size += values.length;
+      modCount++;
+      fireElementsAdded(index, values.length);
+   }
+
+   /**
+    * @return the removed value
+    */
+   public int removeInt(int index) {
+      Preconditions.checkElementIndex(index, size);
+      final int old = data[index];
+      System.arraycopy(data, index + 1, data, index, size - index - 1);
+      size--;
+      modCount++;
+      if (hasListeners()) {
+         fireElementsRemoved(index, Collections.singletonList(old));
+      }
+      return old;
+   }
+
+   public int[] toIntArray() {
+      return Arrays.copyOf(data, size);
+   }
+
+   public void ensureCapacity(int capacity) {
+      if (capacity > data.length) {
+         data = Arrays.copyOf(data, grownCapacity(data.length, capacity));
+      }
+   }
+
+   @Override
+   public Integer get(int index) {
+      return getInt(index);
+   }
+
+   @Override
+   public Integer set(int index, Integer element) {
+      return setInt(index, element);
+   }
+
+   @Override
+   public void add(int index, Integer element) {
+      addInt(index, element);
+   }
+
+   @Override
+   public Integer remove(int index) {
+      return removeInt(index);
+   }
+
+   @Override
+   public boolean addAll(int index, Collection<? extends Integer> c) {
+      final int[] values = new int[c.size()];
+      int i = 0;
+      for (Integer value : c) {
+         values[i++] = value;
+      }
+      addAll(index, values);
+      return values.length > 0;
+   }
+
+   @Override
+   public boolean addAll(Collection<? extends Integer> c) {
+      return addAll(size, c);
+   }
+
+   @Override
+   protected void removeRange(int fromIndex, int toIndex) {
+      Preconditions.checkPositionIndexes(fromIndex, toIndex, size);
+      if (fromIndex == toIndex) {
+         return;
+      }
+      List<Integer> removed = null;
+      if (hasListeners()) {
+         removed = new ArrayList<>(toIndex - fromIndex);
+         for (int i = fromIndex; i < toIndex; i++) {
+            removed.add(data[i]);
+         }
+      }
+      System.arraycopy(data, toIndex, data, fromIndex, size - toIndex);
+      size -= toIndex - fromIndex;
+      modCount++;
+      if (removed != null) {
+         fireElementsRemoved(fromIndex, Collections.unmodifiableList(removed));
+      }
+   }
+
+   @Override
+   public void clear() {
+      removeRange(0, size);
+   }
+}
@@ -0,0 +1,176 @@
+package net.benfro.collections.primitive;
+
+import com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An observable list of <code>long</code> values stored in a primitive array. Use the unboxed accessors such as
+ * {@link #getLong(int)} and {@link #setLong(int, long)} to avoid boxing; <code>null</code> elements are not
+ * supported.
+ */
+public class LongObservableList extends AbstractPrimitiveObservableList<Long> {
+
+   public static LongObservableList of(long... values) {
+      LongObservableList list = new LongObservableList(values.length);
+      list.addAll(values);
+      return list;
+   }
+
+   private long[] data;
+
+   public LongObservableList() {
+      this(10);
+   }
+
+   public LongObservableList(int initialCapacity) {
+      Preconditions.checkArgument(initialCapacity >= 0, "The initial capacity must not be negative");
+      this.data = new long[initialCapacity];
+   }
+
+   public long getLong(int index) {
+      Preconditions.checkElementIndex(index, size);
+      return data[index];
+   }
+
+   /**
+    * @return the value previously at the index
+    */
+   public long setLong(int index, long value) {
+      Preconditions.checkElementIndex(index, size);
+      final long old = data[index];
+      data[index] = value;
+      if (hasListeners()) {
+         fireElementReplaced(index, old);
+      }
+      return old;
+   }
+
+   public void addLong(long value) {
+      addLong(size, value);
+   }
+
+   public void addLong(int index, long value) {
+      Preconditions.checkPositionIndex(index, size);
+      ensureCapacity(size + 1);
+      System.arraycopy(data, index, data, index + 1, size - index);
+      data[index] = value;
+      size++;
+      modCount++;
+      fireElementsAdded(index, 1);
+   }
+
+   /**
+    * Appends all values, notifying the listeners once
+    */
+   public void addAll(long[] values) {
+      addAll(size, values);
+   }
+
+   /**
+    * Inserts all values at the index, notifying the listeners once
+    */
+   public void addAll(int index, long[] values) {
+      Preconditions.checkPositionIndex(index, size);
+      if (values.length == 0) {
+         return;
+      }
+      ensureCapacity(size + values.length);
+      System.arraycopy(data, index, data, index + values.length, size - index);
+      System.arraycopy(values, 0, data, index, values.length);
+      size += values.length;
+      modCount++;
+      fireElementsAdded(index, values.length);
+   }
+
+   /**
+    * @return the removed value
+    */
+   public long removeLong(int index) {
+      Preconditions.checkElementIndex(index, size);
+      final long old = data[index];
+      System.arraycopy(data, index + 1, data, index, size - index - 1);
+      size--;
+      modCount++;
+      if (hasListeners()) {
+         fireElementsRemoved(index, Collections.singletonList(old));
+      }
+      return old;
+   }
+
+   public long[] toLongArray() {
+      return Arrays.copyOf(data, size);
+   }
+
+   public void ensureCapacity(int capacity) {
+      if (capacity > data.length) {
+         data = Arrays.copyOf(data, grownCapacity(data.length, capacity));
+      }
+   }
+
+   @Override
+   public Long get(int index) {
+      return getLong(index);
+   }
+
+   @Override
+   public Long set(int index, Long element) {
+      return setLong(index, element);
+   }
+
+   @Override
+   public void add(int index, Long element) {
+      addLong(index, element);
+   }
+
+   @Override
+   public Long remove(int index) {
+      return removeLong(index);
+   }
+
+   @Override
+   public boolean addAll(int index, Collection<? extends Long> c) {
+      final long[] values = new long[c.size()];
+      int i = 0;
+      for (Long value : c) {
+         values[i++] = value;
+      }
+      addAll(index, values);
+      return values.length > 0;
+   }
+
+   @Override
+   public boolean addAll(Collection<? extends Long> c) {
+      return addAll(size, c);
+   }
+
+   @Override
+   protected void removeRange(int fromIndex, int toIndex) {
+      Preconditions.checkPositionIndexes(fromIndex, toIndex, size);
+      if (fromIndex == toIndex) {
+         return;
+      }
+      List<Long> removed = null;
+      if (hasListeners()) {
+         removed = new ArrayList<>(toIndex - fromIndex);
+         for (int i = fromIndex; i < toIndex; i++) {
+            removed.add(data[i]);
+         }
+      }
+      System.arraycopy(data, toIndex, data, fromIndex, size - toIndex);
+      size -= toIndex - fromIndex;
+      modCount++;
+      if (removed != null) {
+         fireElementsRemoved(fromIndex, Collections.unmodifiableList(removed));
+      }
+   }
+
+   @Override
+   public void clear() {
+      removeRange(0, size);
+   }
+}
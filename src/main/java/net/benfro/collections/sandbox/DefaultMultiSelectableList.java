@@ -2,15 +2,19 @@ package net.benfro.collections.sandbox;
 
 import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.GlazedLists;
+import ca.odell.glazedlists.event.ListEvent;
+import ca.odell.glazedlists.event.ListEventListener;
+import ca.odell.glazedlists.util.concurrent.Lock;
+import com.google.common.base.Equivalence;
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Lists;
 import net.benfro.collections.DefaultObservableList;
-import net.benfro.collections.SelectableList;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
 
 public class DefaultMultiSelectableList<E> extends DefaultObservableList<E>
         implements MultiSelectableList<E> {
@@ -20,130 +24,389 @@ public class DefaultMultiSelectableList<E> extends DefaultObservableList<E>
    }
 
    public static <E> DefaultMultiSelectableList<E> ofThreadSafe(List<E> list) {
-      return new DefaultMultiSelectableList<>(GlazedLists.threadSafeList(GlazedLists.eventList(list)));
+      final DefaultMultiSelectableList<E> selectable =
+              new DefaultMultiSelectableList<>(GlazedLists.threadSafeList(GlazedLists.eventList(list)));
+      selectable.shareBetweenThreads();
+      return selectable;
+   }
+
+   /**
+    * Creates a list keeping a hash index of its elements, so selecting elements takes constant time per element,
+    * see {@link DefaultObservableList#ofIndexed(List, Equivalence)}
+    */
+   public static <E> DefaultMultiSelectableList<E> ofIndexed(List<E> list, Equivalence<? super E> equivalence) {
+      return new DefaultMultiSelectableList<>(GlazedLists.eventList(list), equivalence);
+   }
+
+   /**
+    * Keeps the selected indices in step with the backing list, deselecting elements that are deleted. The elements of
+    * an event are collected into runs of consecutive inserts or deletes, as for the listener callbacks, and the
+    * selected indices are shifted once per run.
+    */
+   private class SelectionTracker implements ListEventListener<E> {
+      private int runType = -1;
+      private int runIndex;
+      private int runLength;
+
+      @Override
+      public void listChanged(ListEvent<E> listEvent) {
+         if (selected.isEmpty()) {
+            return;
+         }
+         while (listEvent.next()) {
+            final int index = listEvent.getIndex();
+            final int type = listEvent.getType();
+            if (type == ListEvent.UPDATE) {
+               continue;
+            }
+            // inserted elements follow each other, deleted ones are all reported at the start of their run
+            final int next = type == ListEvent.INSERT ? runIndex + runLength : runIndex;
+            if (type != runType || index != next) {
+               shift();
+               runType = type;
+               runIndex = index;
+            }
+            runLength++;
+         }
+         shift();
+         fireSelectionChanged();
+      }
+
+      private void shift() {
+         if (runType == ListEvent.INSERT) {
+            selected.insert(runIndex, runLength);
+         } else if (runType == ListEvent.DELETE) {
+            final int end = runIndex + runLength;
+            int row = selected.nextSetBit(runIndex);
+            if (row >= 0 && row < end) {
+               final int first = row;
+               int last;
+               do {
+                  last = row;
+                  row = selected.nextSetBit(row + 1);
+               } while (row >= 0 && row < end);
+               markChanged(first, last);
+            }
+            selected.delete(runIndex, runLength);
+         }
+         runType = -1;
+         runLength = 0;
+      }
+   }
+
+   /**
+    * A read only view of the selected elements in list order, computed from the selected indices when accessed.
+    */
+   private class SelectedElements extends AbstractList<E> {
+
+      @Override
+      public E get(int index) {
+         Preconditions.checkElementIndex(index, size());
+         int row = selected.nextSetBit(0);
+         for (int i = 0; i < index; i++) {
+            row = selected.nextSetBit(row + 1);
+         }
+         return backingList.get(row);
+      }
+
+      @Override
+      public int size() {
+         return selected.cardinality();
+      }
+
+      @Override
+      public boolean isEmpty() {
+         return selected.isEmpty();
+      }
+
+      @Override
+      public Iterator<E> iterator() {
+         return new Iterator<E>() {
+            private int next = selected.nextSetBit(0);
+
+            @Override
+            public boolean hasNext() {
+               return next >= 0;
+            }
+
+            @Override
+            public E next() {
+               if (next < 0) {
+                  throw new NoSuchElementException();
+               }
+               final E element = backingList.get(next);
+               next = selected.nextSetBit(next + 1);
+               return element;
+            }
+         };
+      }
    }
 
    private final PropertyChangeSupport support = new PropertyChangeSupport(this);
-   private final List<E> selected = Lists.newCopyOnWriteArrayList();
+   private final SelectionBitSet selected = new SelectionBitSet();
+   private final List<E> selectedElements = new SelectedElements();
+   private int changedFirst = -1;
+   private int changedLast = -1;
+   private volatile boolean valueIsAdjusting;
+   private int adjustedFirst = -1;
+   private int adjustedLast = -1;
 
    public DefaultMultiSelectableList(EventList<E> backingList) {
-      super(backingList, false);
+      this(backingList, null);
+   }
+
+   public DefaultMultiSelectableList(EventList<E> backingList, Equivalence<? super E> indexEquivalence) {
+      super(backingList, false, true, indexEquivalence);
+      backingList.addListEventListener(new SelectionTracker());
    }
 
    @Override
    public void selectElements(E... elements) {
-      //backingList.getReadWriteLock().readLock().lock();
+      final Lock lock = getWriteLock();
+      lock.lock();
       try {
-         ArrayList<E> elementsToSelect = Lists.newArrayList(elements);
-         selectElementsInternal(elementsToSelect);
+         final int[] indices = new int[elements.length];
+         for (int i = 0; i < elements.length; i++) {
+            indices[i] = indexOf(elements[i]);
+            if (indices[i] < 0) {
+               throw new IllegalArgumentException("One or more elements aren't contained in this list and thus not selectable");
+            }
+         }
+         for (int index : indices) {
+            selectIndex(index);
+         }
+         fireSelectionChanged();
       } finally {
-         //backingList.getReadWriteLock().readLock().unlock();
+         lock.unlock();
       }
-
    }
 
-   private void selectElementsInternal(List<E> elementsToSelect) {
-      elementsToSelect.forEach(e -> {
-         int idx = backingList.indexOf(e);
-         if (idx >= 0) {
-            selected.add(e);
-            support.fireIndexedPropertyChange(SelectableList.SELECTED_ELEMENT_PROPERTY, idx, null, e);
-         }else {
-            throw new IllegalArgumentException("One or more elements aren't contained in this list and thus not selectable");
+   @Override
+   public void deselectElements(E... elements) {
+      final Lock lock = getWriteLock();
+      lock.lock();
+      try {
+         for (E element : elements) {
+            int idx = indexOf(element);
+            if (idx >= 0) {
+               deselectIndex(idx);
+            }
          }
-      });
+         fireSelectionChanged();
+      } finally {
+         lock.unlock();
+      }
    }
 
    @Override
-   public void deselectElements(E... elements) {
-      //backingList.getReadWriteLock().readLock().lock();
+   public void selectIndices(int... indices) {
+      final Lock lock = getWriteLock();
+      lock.lock();
       try {
-         List<E> elementsToDeselect = Lists.newArrayList(elements);
-         deselectElementsInternal(elementsToDeselect);
+         validateRange(indices);
+         for (int index : indices) {
+            selectIndex(index);
+         }
+         fireSelectionChanged();
       } finally {
-         //backingList.getReadWriteLock().readLock().unlock();
+         lock.unlock();
       }
    }
 
-   private void deselectElementsInternal(Collection<E> elementsToDeselect) {
-      elementsToDeselect.forEach(e -> {
-         int index = selected.indexOf(e);
-         if (index >= 0) {
-            selected.remove(index);
-            support.fireIndexedPropertyChange(SelectableList.SELECTED_ELEMENT_PROPERTY, index, e, null);
-         }
-      });
+   private void validateRange(int[] indices) {
+      final int size = backingList.size();
+      for (int index : indices) {
+         Preconditions.checkArgument(index >= 0 && index < size);
+      }
    }
 
    @Override
-   public void selectIndices(int... indices) {
-      //backingList.getReadWriteLock().readLock().lock();
-      validateRange(indices);
-
+   public void deselectIndices(int... indices) {
+      final Lock lock = getWriteLock();
+      lock.lock();
       try {
-         List<E> collect = Arrays.stream(indices).boxed().map(backingList::get).collect(Collectors.toList());
-         selectElementsInternal(collect);
+         validateRange(indices);
+         for (int index : indices) {
+            deselectIndex(index);
+         }
+         fireSelectionChanged();
       } finally {
-         //backingList.getReadWriteLock().readLock().unlock();
+         lock.unlock();
       }
    }
 
-   private void validateRange(int[] indices) {
-      Optional<Integer> max = Arrays.stream(indices).boxed().max(Integer::compare);
-      Optional<Integer> min = Arrays.stream(indices).boxed().min(Integer::compare);
-      max.ifPresent(maxVal -> Preconditions.checkArgument(maxVal < backingList.size()));
-      min.ifPresent(minVal -> Preconditions.checkArgument(minVal >= 0 && minVal < backingList.size()));
+   @Override
+   public void selectRange(int from, int to) {
+      final Lock lock = getWriteLock();
+      lock.lock();
+      try {
+         Preconditions.checkPositionIndexes(from, to, backingList.size());
+         if (from < to) {
+            selected.set(from, to);
+            markChanged(from, to - 1);
+            fireSelectionChanged();
+         }
+      } finally {
+         lock.unlock();
+      }
    }
 
    @Override
-   public void deselectIndices(int... indices) {
-      //backingList.getReadWriteLock().readLock().lock();
-      validateRange(indices);
+   public void deselectRange(int from, int to) {
+      final Lock lock = getWriteLock();
+      lock.lock();
+      try {
+         Preconditions.checkPositionIndexes(from, to, backingList.size());
+         if (from < to) {
+            selected.clear(from, to);
+            markChanged(from, to - 1);
+            fireSelectionChanged();
+         }
+      } finally {
+         lock.unlock();
+      }
+   }
 
+   @Override
+   public void selectAll() {
+      final Lock lock = getWriteLock();
+      lock.lock();
       try {
-         List<E> collect = Arrays.stream(indices).boxed().map(backingList::get).collect(Collectors.toList());
-         deselectElementsInternal(collect);
+         selectRange(0, backingList.size());
       } finally {
-         //backingList.getReadWriteLock().readLock().unlock();
+         lock.unlock();
       }
    }
 
    @Override
-   public void clearSelected() {
-      deselectElementsInternal(selected);
+   public void invertSelection() {
+      final Lock lock = getWriteLock();
+      lock.lock();
+      try {
+         final int size = backingList.size();
+         if (size > 0) {
+            selected.flip(0, size);
+            markChanged(0, size - 1);
+            fireSelectionChanged();
+         }
+      } finally {
+         lock.unlock();
+      }
    }
 
    @Override
-   public List<E> getSelectedElements() {
-      return selected;
+   public void clearSelected() {
+      final Lock lock = getWriteLock();
+      lock.lock();
+      try {
+         final int first = selected.nextSetBit(0);
+         if (first >= 0) {
+            markChanged(first, selected.length() - 1);
+            selected.clear();
+            fireSelectionChanged();
+         }
+      } finally {
+         lock.unlock();
+      }
    }
 
    @Override
-   public boolean isElementSelected(E element) {
-      //backingList.getReadWriteLock().readLock().lock();
+   public void setValueIsAdjusting(boolean valueIsAdjusting) {
+      final Lock lock = getWriteLock();
+      lock.lock();
       try {
-         return selected.contains(element);
+         if (this.valueIsAdjusting && !valueIsAdjusting && adjustedFirst >= 0) {
+            support.firePropertyChange(new MultiSelectionEvent(this, adjustedFirst, adjustedLast, false));
+            adjustedFirst = -1;
+            adjustedLast = -1;
+         }
+         this.valueIsAdjusting = valueIsAdjusting;
       } finally {
-         //backingList.getReadWriteLock().readLock().unlock();
+         lock.unlock();
       }
    }
 
    @Override
-   public boolean remove(Object o) {
-      deselectElementsInternal(Collections.singletonList((E)o));
-      return super.remove(o);
+   public boolean getValueIsAdjusting() {
+      return valueIsAdjusting;
    }
 
+   /**
+    * Deselects the elements without a match in the new contents, including those a new element is put in place of
+    */
    @Override
-   public E remove(int index) {
-      deselectElementsInternal(Collections.singletonList((E)backingList.get(index)));
-      return super.remove(index);
+   protected void replacingContents(int[] oldToNew) {
+      for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+         if (oldToNew[row] < 0) {
+            deselectIndex(row);
+         }
+      }
+      fireSelectionChanged();
+   }
+
+   private void selectIndex(int index) {
+      if (!selected.get(index)) {
+         selected.set(index, index + 1);
+         markChanged(index, index);
+      }
+   }
+
+   private void deselectIndex(int index) {
+      if (selected.get(index)) {
+         selected.clear(index, index + 1);
+         markChanged(index, index);
+      }
+   }
+
+   private void markChanged(int first, int last) {
+      changedFirst = changedFirst < 0 ? first : Math.min(changedFirst, first);
+      changedLast = Math.max(changedLast, last);
+   }
+
+   /**
+    * Fires one event covering all indices marked as changed since the last event, if any.
+    */
+   private void fireSelectionChanged() {
+      if (changedFirst < 0) {
+         return;
+      }
+      final int first = changedFirst;
+      final int last = changedLast;
+      changedFirst = -1;
+      changedLast = -1;
+      if (valueIsAdjusting) {
+         adjustedFirst = adjustedFirst < 0 ? first : Math.min(adjustedFirst, first);
+         adjustedLast = Math.max(adjustedLast, last);
+      }
+      support.firePropertyChange(new MultiSelectionEvent(this, first, last, valueIsAdjusting));
+   }
+
+   @Override
+   public List<E> getSelectedElements() {
+      return selectedElements;
+   }
+
+   @Override
+   public boolean isElementSelected(E element) {
+      final Lock lock = getReadLock();
+      lock.lock();
+      try {
+         int idx = indexOf(element);
+         return idx >= 0 && selected.get(idx);
+      } finally {
+         lock.unlock();
+      }
    }
 
    @Override
-   public boolean removeAll(Collection<?> c) {
-      deselectElementsInternal((Collection<E>) c);
-      return super.removeAll(c);
+   public boolean isIndexSelected(int index) {
+      final Lock lock = getReadLock();
+      lock.lock();
+      try {
+         return selected.get(index);
+      } finally {
+         lock.unlock();
+      }
    }
 
    public void addPropertyChangeListener(PropertyChangeListener listener) {
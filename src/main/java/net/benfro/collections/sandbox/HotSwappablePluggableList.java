@@ -5,6 +5,17 @@ import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.GlazedLists;
 import ca.odell.glazedlists.PluggableList;
 import ca.odell.glazedlists.event.ListEventListener;
+import ca.odell.glazedlists.util.concurrent.Lock;
+import com.google.common.base.Equivalence;
+import com.google.common.base.Preconditions;
+import net.benfro.collections.ListDiff;
+import net.benfro.collections.metrics.ListFlightRecorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * https://stackoverflow.com/questions/26263681/how-to-deal-with-glazedlistss-pluggablelist-requirement-for-shared-publisher-an?utm_medium=organic&utm_source=google_rich_qa&utm_campaign=google_rich_qa
@@ -13,21 +24,86 @@ import ca.odell.glazedlists.event.ListEventListener;
  */
 public class HotSwappablePluggableList<T> extends PluggableList<T> {
 
+   private static final int PREPARE_CHUNK_SIZE = 8192;
+
    private EventList<T> syncSourceList = new BasicEventList<>();
    private ListEventListener<T> listEventListener = null;
+   private final String listId = "HotSwappablePluggableList@" + Integer.toHexString(System.identityHashCode(this));
+   private volatile long version;
 
    public HotSwappablePluggableList() {
       super(new BasicEventList<T>());
+      addListEventListener(listEvent -> version++);
+   }
+
+   /**
+    * A copy of a source, prepared off the write lock by {@link #prepareSource(EventList, Equivalence, Executor)}
+    * and not yet plugged in
+    *
+    * @param <T>
+    */
+   public static final class PreparedSource<T> {
+      private final HotSwappablePluggableList<T> owner;
+      private final EventList<T> source;
+      private final Equivalence<? super T> equivalence;
+      private final EventList<T> copy;
+      private final int[] matches;
+      private final long version;
+
+      private PreparedSource(HotSwappablePluggableList<T> owner, EventList<T> source, Equivalence<? super T> equivalence,
+                             EventList<T> copy, int[] matches, long version) {
+         this.owner = owner;
+         this.source = source;
+         this.equivalence = equivalence;
+         this.copy = copy;
+         this.matches = matches;
+         this.version = version;
+      }
+
+      public EventList<T> getSource() {
+         return source;
+      }
+   }
+
+   /**
+    * Switches to the new source without copying it, publishing only the difference to the old content, with
+    * elements matched by identity, see {@link #swapSource(EventList, Equivalence)}
+    */
+   public void swapSource(final EventList<T> newSource) {
+      swapSource(newSource, Equivalence.identity());
+   }
+
+   /**
+    * Switches to the new source without copying it. Unlike {@link #setSource(EventList)}, which announces the whole
+    * content as deleted and inserted again, only the difference between the old and the new content is published,
+    * see {@link ListDiff}, so swapping between mostly overlapping sources is cheap for the listeners. The source must
+    * share the publisher and lock of this list, e.g. be made by {@link #createSourceList()}.
+    *
+    * @param equivalence matches old and new elements, e.g. {@link Equivalence#identity()} or
+    *                    <code>Equivalence.equals().onResultOf(keyExtractor)</code>
+    */
+   public void swapSource(final EventList<T> newSource, Equivalence<? super T> equivalence) {
+      Preconditions.checkArgument(newSource.getPublisher() == getPublisher() && newSource.getReadWriteLock() == getReadWriteLock(),
+              "The source must share the publisher and lock of this list; use setSource to copy it");
+      getReadWriteLock().writeLock().lock();
+      final Object recording = ListFlightRecorder.get().beginWriteLockHold();
+      try {
+         final int[] matches = ListDiff.matches(source, newSource, equivalence);
+         stopSync();
+         syncSourceList = newSource;
+         plug(newSource, matches);
+      } finally {
+         ListFlightRecorder.get().commitWriteLockHold(recording, listId, "swapSource");
+         getReadWriteLock().writeLock().unlock();
+      }
    }
 
    @Override
    public void setSource(final EventList<T> sourceList) {
       getReadWriteLock().writeLock().lock();
+      final Object recording = ListFlightRecorder.get().beginWriteLockHold();
       try {
-         if (listEventListener != null) {
-            syncSourceList.removeListEventListener(listEventListener);
-         }
-
+         stopSync();
          syncSourceList = sourceList;
 
          final EventList<T> syncTargetList = createSourceList();
@@ -35,7 +111,156 @@ public class HotSwappablePluggableList<T> extends PluggableList<T> {
 
          super.setSource(syncTargetList);
       } finally {
+         ListFlightRecorder.get().commitWriteLockHold(recording, listId, "setSource");
          getReadWriteLock().writeLock().unlock();
       }
    }
+
+   /**
+    * Starts to prepare a swap to the source on the executor: the source is copied, and the difference to the current
+    * content is computed, matching elements by identity
+    *
+    * @see #prepareSource(EventList, Equivalence, Executor)
+    */
+   public CompletableFuture<PreparedSource<T>> prepareSource(final EventList<T> sourceList) {
+      return prepareSource(sourceList, Equivalence.identity(), ForkJoinPool.commonPool());
+   }
+
+   /**
+    * Starts to prepare a swap to the source on the executor. The source is copied into a list sharing the publisher
+    * and lock of this list, taking the write lock only briefly for each chunk of elements, and the difference to the
+    * current content is computed. Nothing listens to the source or the copy until the swap is committed with
+    * {@link #commitSwap(PreparedSource)}, so a prepared source that is not committed can simply be dropped; changes
+    * of the source in between are caught up with on commit.
+    */
+   public CompletableFuture<PreparedSource<T>> prepareSource(final EventList<T> sourceList, Equivalence<? super T> equivalence, Executor executor) {
+      return CompletableFuture.supplyAsync(() -> {
+         final List<T> elements;
+         sourceList.getReadWriteLock().readLock().lock();
+         try {
+            elements = new ArrayList<>(sourceList);
+         } finally {
+            sourceList.getReadWriteLock().readLock().unlock();
+         }
+
+         final List<T> current;
+         final long preparedVersion;
+         getReadWriteLock().readLock().lock();
+         try {
+            current = new ArrayList<>(this);
+            preparedVersion = version;
+         } finally {
+            getReadWriteLock().readLock().unlock();
+         }
+         final int[] matches = ListDiff.matches(current, elements, equivalence);
+
+         final EventList<T> copy = createSourceList();
+         for (int from = 0; from < elements.size(); from += PREPARE_CHUNK_SIZE) {
+            getReadWriteLock().writeLock().lock();
+            try {
+               copy.addAll(elements.subList(from, Math.min(from + PREPARE_CHUNK_SIZE, elements.size())));
+            } finally {
+               getReadWriteLock().writeLock().unlock();
+            }
+         }
+         return new PreparedSource<>(this, sourceList, equivalence, copy, matches, preparedVersion);
+      }, executor);
+   }
+
+   /**
+    * Plugs in a prepared source and starts keeping the copy in sync with it. If the source changed since the
+    * preparation the copy first catches up with it, by replaying the difference found by identity, which is cheap
+    * when only a few elements changed. If this list has not changed since the preparation only the difference is
+    * published, otherwise the whole content is replaced.
+    * <p>
+    * The read lock of the source is taken before the write lock of this list, the order in which a writer of the
+    * source reaches this list through the sync.
+    */
+   public void commitSwap(PreparedSource<T> prepared) {
+      Preconditions.checkArgument(prepared.owner == this, "The source was prepared for another list");
+      final Lock sourceLock = prepared.source.getReadWriteLock() == getReadWriteLock()
+              ? null : prepared.source.getReadWriteLock().readLock();
+      if (sourceLock != null) {
+         sourceLock.lock();
+      }
+      try {
+         getReadWriteLock().writeLock().lock();
+         final Object recording = ListFlightRecorder.get().beginWriteLockHold();
+         try {
+            final boolean caughtUp = catchUp(prepared.copy, prepared.source);
+            stopSync();
+            syncSourceList = prepared.source;
+            listEventListener = GlazedLists.syncEventListToList(prepared.source, prepared.copy);
+            if (prepared.version != version) {
+               super.setSource(prepared.copy);
+            } else if (caughtUp) {
+               plug(prepared.copy, ListDiff.matches(source, prepared.copy, prepared.equivalence));
+            } else {
+               plug(prepared.copy, prepared.matches);
+            }
+         } finally {
+            ListFlightRecorder.get().commitWriteLockHold(recording, listId, "commitSwap");
+            getReadWriteLock().writeLock().unlock();
+         }
+      } finally {
+         if (sourceLock != null) {
+            sourceLock.unlock();
+         }
+      }
+   }
+
+   /**
+    * Applies the changes of the source since the copy was taken to the copy, which nothing listens to yet
+    *
+    * @return <code>true</code> if the source had changed
+    */
+   private static <T> boolean catchUp(EventList<T> copy, EventList<T> source) {
+      final int[] matches = ListDiff.matches(copy, source, Equivalence.identity());
+      boolean unchanged = copy.size() == source.size();
+      for (int i = 0; unchanged && i < matches.length; i++) {
+         unchanged = matches[i] == i;
+      }
+      if (!unchanged) {
+         ListDiff.replay(new ArrayList<>(copy), source, matches, ListDiff.applyingTo(copy));
+      }
+      return !unchanged;
+   }
+
+   private void stopSync() {
+      if (listEventListener != null) {
+         syncSourceList.removeListEventListener(listEventListener);
+         listEventListener = null;
+      }
+   }
+
+   /**
+    * Replaces the source by one sharing the publisher and lock, publishing the difference given by the matches
+    */
+   private void plug(EventList<T> newSource, int[] matches) {
+      final EventList<T> oldSource = source;
+      oldSource.removeListEventListener(this);
+      source = newSource;
+      newSource.addListEventListener(this);
+
+      updates.beginEvent();
+      ListDiff.replay(oldSource, newSource, matches, new ListDiff.Changes<T>() {
+         @Override
+         public void removed(int index, List<? extends T> elements) {
+            elements.forEach(element -> updates.elementDeleted(index, element));
+         }
+
+         @Override
+         public void inserted(int index, List<? extends T> elements) {
+            for (int i = 0; i < elements.size(); i++) {
+               updates.elementInserted(index + i, elements.get(i));
+            }
+         }
+
+         @Override
+         public void replaced(int index, T oldElement, T newElement) {
+            updates.elementUpdated(index, oldElement, newElement);
+         }
+      });
+      updates.commitEvent();
+   }
 }
@@ -3,6 +3,12 @@ package net.benfro.collections.sandbox;
 import java.util.List;
 
 public interface MultiSelectableList<E> {
+
+   /**
+    * The property name of the {@link MultiSelectionEvent}s fired when the selection changes
+    */
+   String SELECTION_PROPERTY = "selection";
+
    /**
     * Select one or more elements present int the multi selectable list
     *
@@ -30,13 +36,54 @@ public interface MultiSelectableList<E> {
     */
    void deselectIndices(int... indices);
 
+   /**
+    * Select all elements from <code>from</code> (inclusive) to <code>to</code> (exclusive)
+    *
+    * @param from
+    * @param to
+    * @throws IndexOutOfBoundsException if the range is not within the list
+    */
+   void selectRange(int from, int to);
+
+   /**
+    * Deselect all elements from <code>from</code> (inclusive) to <code>to</code> (exclusive)
+    *
+    * @param from
+    * @param to
+    * @throws IndexOutOfBoundsException if the range is not within the list
+    */
+   void deselectRange(int from, int to);
+
+   /**
+    * Select all elements of the list
+    */
+   void selectAll();
+
+   /**
+    * Select all elements that are not selected and deselect those that are
+    */
+   void invertSelection();
+
    /**
     *
     */
    void clearSelected();
 
    /**
-    * @return A immutable view of the currently selected elements
+    * Marks the following selection changes as one of a series, e.g. while the user drags the mouse. When set back
+    * to <code>false</code> one final event covering all changes made in the meantime is fired.
+    *
+    * @param valueIsAdjusting
+    */
+   void setValueIsAdjusting(boolean valueIsAdjusting);
+
+   /**
+    * @return <code>true</code> if the selection is currently undergoing a series of changes
+    */
+   boolean getValueIsAdjusting();
+
+   /**
+    * @return A immutable view of the currently selected elements, in list order
     */
    List<E> getSelectedElements();
 
@@ -45,4 +92,10 @@ public interface MultiSelectableList<E> {
     * @return <code>true</code> iff the provided element is selected
     */
    boolean isElementSelected(E element);
+
+   /**
+    * @param index
+    * @return <code>true</code> iff the element at the provided index is selected
+    */
+   boolean isIndexSelected(int index);
 }
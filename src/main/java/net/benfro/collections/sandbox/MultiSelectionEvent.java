@@ -0,0 +1,50 @@
+package net.benfro.collections.sandbox;
+
+import java.beans.PropertyChangeEvent;
+
+/**
+ * Describes a change of the selection of a {@link MultiSelectableList} in the manner of Swing's
+ * <code>ListSelectionEvent</code>: one event for a whole selection operation, carrying the first and last index whose
+ * selection state may have changed. Old and new value are always <code>null</code>, the current selection is read
+ * from the source.
+ */
+public class MultiSelectionEvent extends PropertyChangeEvent {
+
+   private final int firstIndex;
+   private final int lastIndex;
+   private final boolean valueIsAdjusting;
+
+   public MultiSelectionEvent(Object source, int firstIndex, int lastIndex, boolean valueIsAdjusting) {
+      super(source, MultiSelectableList.SELECTION_PROPERTY, null, null);
+      this.firstIndex = firstIndex;
+      this.lastIndex = lastIndex;
+      this.valueIsAdjusting = valueIsAdjusting;
+   }
+
+   /**
+    * @return the first index whose selection may have changed
+    */
+   public int getFirstIndex() {
+      return firstIndex;
+   }
+
+   /**
+    * @return the last index, inclusive, whose selection may have changed
+    */
+   public int getLastIndex() {
+      return lastIndex;
+   }
+
+   /**
+    * @return <code>true</code> if this is one of several changes in a row, e.g. while the user drags the mouse
+    */
+   public boolean getValueIsAdjusting() {
+      return valueIsAdjusting;
+   }
+
+   @Override
+   public String toString() {
+      return getClass().getName() + "[firstIndex=" + firstIndex + ", lastIndex=" + lastIndex
+              + ", valueIsAdjusting=" + valueIsAdjusting + "]";
+   }
+}
@@ -0,0 +1,214 @@
+package net.benfro.collections.sandbox;
+
+import java.util.Arrays;
+
+/**
+ * A growable bitmap of selected list indices. Besides the usual range operations it can insert and delete index
+ * ranges, shifting the bits above them, so it can be kept in step with the list it describes. Lookups are O(1) and
+ * range operations as well as shifts work on whole 64 bit words.
+ */
+final class SelectionBitSet {
+
+   private static final int ADDRESS_BITS = 6;
+   private static final int BITS_PER_WORD = 1 << ADDRESS_BITS;
+
+   private long[] words = new long[0];
+
+   boolean get(int index) {
+      final int wordIndex = index >>> ADDRESS_BITS;
+      return wordIndex < words.length && (words[wordIndex] & (1L << index)) != 0;
+   }
+
+   /**
+    * Sets the bits from <code>from</code> (inclusive) to <code>to</code> (exclusive)
+    */
+   void set(int from, int to) {
+      if (from >= to) {
+         return;
+      }
+      ensureCapacity(to);
+      final int startWord = from >>> ADDRESS_BITS;
+      final int endWord = (to - 1) >>> ADDRESS_BITS;
+      final long firstMask = -1L << from;
+      final long lastMask = -1L >>> -to;
+      if (startWord == endWord) {
+         words[startWord] |= firstMask & lastMask;
+      } else {
+         words[startWord] |= firstMask;
+         Arrays.fill(words, startWord + 1, endWord, -1L);
+         words[endWord] |= lastMask;
+      }
+   }
+
+   /**
+    * Clears the bits from <code>from</code> (inclusive) to <code>to</code> (exclusive)
+    */
+   void clear(int from, int to) {
+      to = Math.min(to, words.length * BITS_PER_WORD);
+      if (from >= to) {
+         return;
+      }
+      final int startWord = from >>> ADDRESS_BITS;
+      final int endWord = (to - 1) >>> ADDRESS_BITS;
+      final long firstMask = -1L << from;
+      final long lastMask = -1L >>> -to;
+      if (startWord == endWord) {
+         words[startWord] &= ~(firstMask & lastMask);
+      } else {
+         words[startWord] &= ~firstMask;
+         Arrays.fill(words, startWord + 1, endWord, 0L);
+         words[endWord] &= ~lastMask;
+      }
+   }
+
+   /**
+    * Flips the bits from <code>from</code> (inclusive) to <code>to</code> (exclusive)
+    */
+   void flip(int from, int to) {
+      if (from >= to) {
+         return;
+      }
+      ensureCapacity(to);
+      final int startWord = from >>> ADDRESS_BITS;
+      final int endWord = (to - 1) >>> ADDRESS_BITS;
+      final long firstMask = -1L << from;
+      final long lastMask = -1L >>> -to;
+      if (startWord == endWord) {
+         words[startWord] ^= firstMask & lastMask;
+      } else {
+         words[startWord] ^= firstMask;
+         for (int i = startWord + 1; i < endWord; i++) {
+            words[i] = ~words[i];
+         }
+         words[endWord] ^= lastMask;
+      }
+   }
+
+   void clear() {
+      Arrays.fill(words, 0L);
+   }
+
+   boolean isEmpty() {
+      for (long word : words) {
+         if (word != 0) {
+            return false;
+         }
+      }
+      return true;
+   }
+
+   int cardinality() {
+      int count = 0;
+      for (long word : words) {
+         count += Long.bitCount(word);
+      }
+      return count;
+   }
+
+   /**
+    * @return the index of the first set bit at or after <code>from</code>, or -1 if there is none
+    */
+   int nextSetBit(int from) {
+      int wordIndex = from >>> ADDRESS_BITS;
+      if (wordIndex >= words.length) {
+         return -1;
+      }
+      long word = words[wordIndex] & (-1L << from);
+      while (true) {
+         if (word != 0) {
+            return wordIndex * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+         }
+         if (++wordIndex == words.length) {
+            return -1;
+         }
+         word = words[wordIndex];
+      }
+   }
+
+   /**
+    * @return the index of the highest set bit plus one
+    */
+   int length() {
+      for (int wordIndex = words.length - 1; wordIndex >= 0; wordIndex--) {
+         if (words[wordIndex] != 0) {
+            return wordIndex * BITS_PER_WORD + (BITS_PER_WORD - Long.numberOfLeadingZeros(words[wordIndex]));
+         }
+      }
+      return 0;
+   }
+
+   /**
+    * Makes room for <code>length</code> unset bits at <code>index</code>, moving all bits at or above it up.
+    */
+   void insert(int index, int length) {
+      final int oldLength = length();
+      if (index >= oldLength || length <= 0) {
+         return;
+      }
+      ensureCapacity(oldLength + length);
+      final int lastWord = (oldLength + length - 1) >>> ADDRESS_BITS;
+      for (int wordIndex = lastWord; wordIndex >= index >>> ADDRESS_BITS; wordIndex--) {
+         final int firstBit = wordIndex * BITS_PER_WORD;
+         final long kept = words[wordIndex] & lowMask(index - firstBit);
+         final long moved = readWord(firstBit - length) & ~lowMask(index + length - firstBit);
+         words[wordIndex] = kept | moved;
+      }
+   }
+
+   /**
+    * Removes the <code>length</code> bits at <code>index</code>, moving all bits above them down.
+    */
+   void delete(int index, int length) {
+      if (index >= length() || length <= 0) {
+         return;
+      }
+      for (int wordIndex = index >>> ADDRESS_BITS; wordIndex < words.length; wordIndex++) {
+         final int firstBit = wordIndex * BITS_PER_WORD;
+         final long kept = words[wordIndex] & lowMask(index - firstBit);
+         final long moved = readWord(firstBit + length) & ~lowMask(index - firstBit);
+         words[wordIndex] = kept | moved;
+      }
+   }
+
+   /**
+    * @return a mask of the bits of a word below the given bit offset into that word
+    */
+   private static long lowMask(int bitsInWord) {
+      if (bitsInWord <= 0) {
+         return 0L;
+      }
+      if (bitsInWord >= BITS_PER_WORD) {
+         return -1L;
+      }
+      return (1L << bitsInWord) - 1;
+   }
+
+   /**
+    * @return the 64 bits starting at an arbitrary, possibly negative, bit offset; bits outside the set are zero
+    */
+   private long readWord(int bit) {
+      if (bit <= -BITS_PER_WORD) {
+         return 0L;
+      }
+      if (bit < 0) {
+         return word(0) << -bit;
+      }
+      final int wordIndex = bit >>> ADDRESS_BITS;
+      final int offset = bit & (BITS_PER_WORD - 1);
+      if (offset == 0) {
+         return word(wordIndex);
+      }
+      return (word(wordIndex) >>> offset) | (word(wordIndex + 1) << (BITS_PER_WORD - offset));
+   }
+
+   private long word(int wordIndex) {
+      return wordIndex < words.length ? words[wordIndex] : 0L;
+   }
+
+   private void ensureCapacity(int bits) {
+      final int required = (bits + BITS_PER_WORD - 1) >>> ADDRESS_BITS;
+      if (required > words.length) {
+         words = Arrays.copyOf(words, Math.max(required, words.length * 2));
+      }
+   }
+}
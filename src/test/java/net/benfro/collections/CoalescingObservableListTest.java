@@ -0,0 +1,92 @@
+package net.benfro.collections;
+
+import com.google.common.collect.Lists;
+import org.jdesktop.observablecollections.ObservableListListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@DisplayName("A CoalescingObservableList")
+class CoalescingObservableListTest {
+
+   private DefaultObservableList<String> source;
+   private CoalescingObservableList<String> instance;
+   private ObservableListListener mockListener;
+
+   @BeforeEach
+   void setUp() {
+      source = DefaultObservableList.of(Lists.newArrayList("A", "B", "C"));
+      instance = new CoalescingObservableList<>(source);
+      mockListener = Mockito.mock(ObservableListListener.class);
+      instance.addObservableListListener(mockListener);
+   }
+
+   @AfterEach
+   void afterEach() {
+      verifyNoMoreInteractions(mockListener);
+   }
+
+   @Test
+   @DisplayName("should not deliver anything before the frame ends")
+   void testNothingDeliveredBeforeFlush() {
+      source.add("D");
+      verifyNoInteractions(mockListener);
+      assertEquals(4, instance.size());
+   }
+
+   @Test
+   @DisplayName("should collapse repeated updates of the same row")
+   void testRepeatedUpdatesAreMerged() {
+      source.set(1, "X");
+      source.set(1, "Y");
+      source.set(1, "Z");
+      instance.flush();
+
+      verify(mockListener, times(1)).listElementReplaced(instance, 1, "B");
+      assertEquals(3, instance.getReceivedChangeCount());
+      assertEquals(1, instance.getDeliveredChangeCount());
+      assertEquals(2, instance.getMergedChangeCount());
+   }
+
+   @Test
+   @DisplayName("should net out an insert followed by its removal")
+   void testInsertFollowedByRemoveIsDropped() {
+      source.add("D");
+      source.set(3, "E");
+      source.remove(3);
+      instance.flush();
+
+      assertEquals(0, instance.getDeliveredChangeCount());
+      assertEquals(1, instance.getMergedChangeCount());
+      assertEquals(2, instance.getDroppedChangeCount());
+   }
+
+   @Test
+   @DisplayName("should merge adjacent structural changes")
+   void testAdjacentChangesAreMerged() {
+      source.add("D");
+      source.add("E");
+      source.remove(0);
+      source.remove(0);
+      instance.flush();
+
+      InOrder inOrder = inOrder(mockListener);
+      inOrder.verify(mockListener).listElementsAdded(instance, 3, 2);
+      inOrder.verify(mockListener).listElementsRemoved(instance, 0, Lists.newArrayList("A", "B"));
+   }
+
+   @Test
+   @DisplayName("should stop listening to the underlying list when disposed")
+   void testDispose() {
+      instance.dispose();
+      source.add("D");
+      instance.flush();
+      assertEquals(0, instance.getReceivedChangeCount());
+   }
+}
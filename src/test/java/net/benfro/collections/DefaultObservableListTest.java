@@ -1,13 +1,23 @@
 package net.benfro.collections;
 
+import ca.odell.glazedlists.BasicEventList;
 import com.google.common.collect.Lists;
+import net.benfro.collections.columnar.RecordSchema;
+import net.benfro.collections.columnar.Row;
 import org.jdesktop.observablecollections.ObservableListListener;
 import org.junit.jupiter.api.*;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
+import javax.swing.SwingUtilities;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -192,6 +202,35 @@ class DefaultObservableListTest {
       }
    }
 
+   @Nested
+   class TestWithDispatchExecutor {
+
+      private final List<Runnable> pending = new ArrayList<>();
+      private ObservableListListener mockListener;
+
+      @BeforeEach
+      void setUp() {
+         instance = DefaultObservableList.ofThreadSafe(Lists.newArrayList("A", "B", "C"));
+         mockListener = Mockito.mock(ObservableListListener.class);
+         instance.addObservableListListener(mockListener);
+         instance.setDispatchExecutor(pending::add);
+      }
+
+      @Test
+      void testListenersAreCalledByTheExecutorInOrder() {
+         instance.add("D");
+         instance.remove("A");
+         verifyNoInteractions(mockListener);
+
+         new ArrayList<>(pending).forEach(Runnable::run);
+
+         InOrder inOrder = inOrder(mockListener);
+         inOrder.verify(mockListener).listElementsAdded(instance, 3, 1);
+         inOrder.verify(mockListener).listElementsRemoved(instance, 0, Lists.newArrayList("A"));
+         verifyNoMoreInteractions(mockListener);
+      }
+   }
+
    @Nested
    class TestWithObservableListener {
 
@@ -254,7 +293,17 @@ class DefaultObservableListTest {
          @Test
          void testRemoveMoreNonAdjacentObjects() {
             instance.removeAll(Lists.newArrayList("A", "C"));
-            verify(mockListener, times(1)).listElementsRemoved(instance, 0, Lists.newArrayList("A", "C"));
+            InOrder inOrder = inOrder(mockListener);
+            inOrder.verify(mockListener).listElementsRemoved(instance, 0, Lists.newArrayList("A"));
+            inOrder.verify(mockListener).listElementsRemoved(instance, 1, Lists.newArrayList("C"));
+         }
+
+         @Test
+         void testRemoveDuplicateObject() {
+            instance.add("A");
+            instance.remove(3);
+            verify(mockListener, times(1)).listElementsAdded(instance, 3, 1);
+            verify(mockListener, times(1)).listElementsRemoved(instance, 3, Lists.newArrayList("A"));
          }
 
          @Test
@@ -270,6 +319,111 @@ class DefaultObservableListTest {
          }
       }
 
+      @Nested
+      class TestBatchOperations {
+
+         @Test
+         void testAddsAreCoalesced() {
+            instance.batch(l -> {
+               l.add("D");
+               l.add("E");
+               l.add("F");
+            });
+            verify(mockListener, times(1)).listElementsAdded(instance, 3, 3);
+         }
+
+         @Test
+         void testRepeatedUpdatesAreCoalesced() {
+            instance.batch(l -> {
+               l.set(0, "X");
+               l.set(0, "Y");
+            });
+            assertEquals("Y", instance.get(0));
+            verify(mockListener, times(1)).listElementReplaced(instance, 0, "A");
+         }
+
+         @Test
+         void testInsertFollowedByDeleteIsNettedOut() {
+            instance.beginChanges();
+            instance.add("D");
+            instance.remove("D");
+            instance.commitChanges();
+            assertEquals(Lists.newArrayList("A", "B", "C"), instance);
+            verifyNoInteractions(mockListener);
+         }
+
+         @Test
+         void testNestedBatchesPublishOnce() {
+            instance.batch(l -> {
+               l.add("D");
+               instance.batch(inner -> inner.add("E"));
+               l.remove("A");
+            });
+            InOrder inOrder = inOrder(mockListener);
+            inOrder.verify(mockListener).listElementsRemoved(instance, 0, Lists.newArrayList("A"));
+            inOrder.verify(mockListener).listElementsAdded(instance, 2, 2);
+         }
+      }
+
+      @Nested
+      class TestScatteredBulkOperations {
+
+         private ScriptedEventList<String> source;
+
+         @BeforeEach
+         void setUp() {
+            source = new ScriptedEventList<>();
+            source.addAll(Lists.newArrayList("A", "B", "C", "D", "E", "F"));
+            instance = new DefaultObservableList<>(source, false);
+            instance.addObservableListListener(mockListener);
+         }
+
+         @Test
+         void testRemoveScatteredObjects() {
+            instance.removeAll(Lists.newArrayList("B", "D", "E"));
+            InOrder inOrder = inOrder(mockListener);
+            inOrder.verify(mockListener).listElementsRemoved(instance, 1, Lists.newArrayList("B"));
+            inOrder.verify(mockListener).listElementsRemoved(instance, 2, Lists.newArrayList("D", "E"));
+         }
+
+         @Test
+         void testRetainScatteredObjects() {
+            instance.retainAll(Lists.newArrayList("B", "E"));
+            InOrder inOrder = inOrder(mockListener);
+            inOrder.verify(mockListener).listElementsRemoved(instance, 0, Lists.newArrayList("A"));
+            inOrder.verify(mockListener).listElementsRemoved(instance, 1, Lists.newArrayList("C", "D"));
+            inOrder.verify(mockListener).listElementsRemoved(instance, 2, Lists.newArrayList("F"));
+         }
+
+         @Test
+         void testMixedInsertAndDeleteInOneEvent() {
+            source.inOneEvent(() -> {
+               source.remove(1);
+               source.add(3, "X");
+               source.add(4, "Y");
+            });
+            assertEquals(Lists.newArrayList("A", "C", "D", "X", "Y", "E", "F"), instance);
+            InOrder inOrder = inOrder(mockListener);
+            inOrder.verify(mockListener).listElementsRemoved(instance, 1, Lists.newArrayList("B"));
+            inOrder.verify(mockListener).listElementsAdded(instance, 3, 2);
+         }
+
+         @Test
+         void testMixedDeleteAndUpdateInOneEvent() {
+            source.inOneEvent(() -> {
+               source.set(0, "X");
+               source.remove(2);
+               source.remove(2);
+               source.set(3, "Y");
+            });
+            assertEquals(Lists.newArrayList("X", "B", "E", "Y"), instance);
+            InOrder inOrder = inOrder(mockListener);
+            inOrder.verify(mockListener).listElementReplaced(instance, 0, "A");
+            inOrder.verify(mockListener).listElementsRemoved(instance, 2, Lists.newArrayList("C", "D"));
+            inOrder.verify(mockListener).listElementReplaced(instance, 3, "F");
+         }
+      }
+
       @Nested
       class TestUpdateOperations {
 
@@ -360,6 +514,279 @@ class DefaultObservableListTest {
             verifyNoMoreInteractions(mockListener);
          }
 
+         @Test
+         void testChangeIgnoredProperty() {
+            instance.removeObservableListListener(mockListener);
+            instance = DefaultObservableList.ofPropertyAware(Lists.newArrayList(instance), PropertyBean.class, "age");
+            instance.addObservableListListener(mockListener);
+            instance.get(1).setName("Lara");
+            instance.get(1).setMale(true);
+            verifyNoInteractions(mockListener);
+            instance.get(1).setAge(9);
+            verify(mockListener).listElementPropertyChanged(instance, 1);
+            verifyNoMoreInteractions(mockListener);
+         }
+
+         @Test
+         void testRemovedElementIsNotObserved() {
+            PropertyBean removed = instance.remove(0);
+            removed.setAge(11);
+            verify(mockListener).listElementsRemoved(instance, 0, Lists.newArrayList(removed));
+            verifyNoMoreInteractions(mockListener);
+         }
+
+         @Nested
+         @DisplayName("with property change coalescing")
+         class TestPropertyChangeCoalescing {
+
+            @BeforeEach
+            void setUp() {
+               instance.setPropertyChangeCoalescing(1, TimeUnit.HOURS);
+            }
+
+            @Test
+            void testOneNotificationPerElement() {
+               instance.get(0).setAge(11);
+               instance.get(0).setName("Ben");
+               instance.get(0).setMale(false);
+               instance.get(2).setAge(21);
+               verifyNoInteractions(mockListener);
+
+               instance.flushPropertyChanges();
+               InOrder inOrder = inOrder(mockListener);
+               inOrder.verify(mockListener).listElementPropertyChanged(instance, 0);
+               inOrder.verify(mockListener).listElementPropertyChanged(instance, 2);
+               verifyNoMoreInteractions(mockListener);
+            }
+
+            @Test
+            void testFlushAtEndOfBatch() {
+               instance.batch(l -> {
+                  l.get(1).setAge(9);
+                  l.get(1).setName("Lara");
+               });
+               verify(mockListener).listElementPropertyChanged(instance, 1);
+               verifyNoMoreInteractions(mockListener);
+            }
+
+            @Test
+            void testFlushBeforeStructuralChange() {
+               instance.get(1).setAge(9);
+               PropertyBean removed = instance.remove(0);
+               instance.get(0).setName("Lara");
+               instance.flushPropertyChanges();
+
+               InOrder inOrder = inOrder(mockListener);
+               inOrder.verify(mockListener).listElementPropertyChanged(instance, 1);
+               inOrder.verify(mockListener).listElementsRemoved(instance, 0, Lists.newArrayList(removed));
+               inOrder.verify(mockListener).listElementPropertyChanged(instance, 0);
+               verifyNoMoreInteractions(mockListener);
+            }
+
+            @Test
+            void testFlushAfterDelay() throws InterruptedException {
+               final AtomicBoolean onEventDispatchThread = new AtomicBoolean();
+               final CountDownLatch delivered = new CountDownLatch(1);
+               doAnswer(invocation -> {
+                  onEventDispatchThread.set(SwingUtilities.isEventDispatchThread());
+                  delivered.countDown();
+                  return null;
+               }).when(mockListener).listElementPropertyChanged(instance, 2);
+               instance.setPropertyChangeCoalescing(10, TimeUnit.MILLISECONDS);
+               instance.get(2).setAge(21);
+               instance.get(2).setName("Sam");
+               assertTrue(delivered.await(2, TimeUnit.SECONDS));
+               assertTrue(onEventDispatchThread.get());
+               verify(mockListener).listElementPropertyChanged(instance, 2);
+               verifyNoMoreInteractions(mockListener);
+            }
+
+            @Test
+            void testFlushAfterDelayWhileLocked() throws InterruptedException {
+               final CountDownLatch delivered = new CountDownLatch(1);
+               doAnswer(invocation -> {
+                  delivered.countDown();
+                  return null;
+               }).when(mockListener).listElementPropertyChanged(instance, 2);
+               instance.setPropertyChangeCoalescing(10, TimeUnit.MILLISECONDS);
+               instance.get(2).setAge(21);
+
+               final CountDownLatch locked = new CountDownLatch(1);
+               final CountDownLatch unlock = new CountDownLatch(1);
+               final Thread writer = new Thread(() -> {
+                  instance.getWriteLock().lock();
+                  try {
+                     locked.countDown();
+                     unlock.await();
+                  } catch (InterruptedException e) {
+                     Thread.currentThread().interrupt();
+                  } finally {
+                     instance.getWriteLock().unlock();
+                  }
+               });
+               writer.start();
+               try {
+                  assertTrue(locked.await(2, TimeUnit.SECONDS));
+                  assertTrue(delivered.await(2, TimeUnit.SECONDS));
+               } finally {
+                  unlock.countDown();
+                  writer.join();
+               }
+            }
+         }
+
+      }
+   }
+
+   @Nested
+   @DisplayName("Replacing the contents of a DefaultObservableList")
+   class TestReplaceContents {
+
+      private ObservableListListener mockListener;
+
+      @BeforeEach
+      void setUp() {
+         instance = DefaultObservableList.of("A", "B", "C", "D", "E");
+         mockListener = mock(ObservableListListener.class);
+         instance.addObservableListListener(mockListener);
+      }
+
+      @Test
+      @DisplayName("should only report the rows that differ")
+      void minimalChanges() {
+         instance.replaceContents(Lists.newArrayList("A", "C", "D", "X", "E"));
+         assertEquals(Lists.newArrayList("A", "C", "D", "X", "E"), instance);
+         InOrder inOrder = inOrder(mockListener);
+         inOrder.verify(mockListener).listElementsRemoved(instance, 1, Lists.newArrayList("B"));
+         inOrder.verify(mockListener).listElementsAdded(instance, 3, 1);
+         verifyNoMoreInteractions(mockListener);
+      }
+
+      @Test
+      @DisplayName("should report nothing for equal contents")
+      void noChanges() {
+         instance.replaceContents(Lists.newArrayList("A", "B", "C", "D", "E"));
+         verifyNoInteractions(mockListener);
+      }
+
+      @Test
+      @DisplayName("should replace changed rows matched by key in place")
+      void byKey() {
+         instance.replaceContents(Lists.newArrayList("A", "B", "c", "D", "E"), s -> s.toUpperCase());
+         assertEquals("c", instance.get(2));
+         verify(mockListener).listElementReplaced(instance, 2, "C");
+         verifyNoMoreInteractions(mockListener);
+      }
+
+      @Test
+      @DisplayName("should cope with duplicates")
+      void duplicates() {
+         instance = DefaultObservableList.of("A", "B", "A", "B", "A");
+         instance.replaceContents(Lists.newArrayList("B", "A", "A", "B"));
+         assertEquals(Lists.newArrayList("B", "A", "A", "B"), instance);
+      }
+   }
+
+   @Nested
+   @DisplayName("A snapshot of a DefaultObservableList")
+   class TestSnapshots {
+
+      @BeforeEach
+      void setUp() {
+         instance = DefaultObservableList.of("A", "B", "C");
+      }
+
+      @Test
+      @DisplayName("should not change when the list does")
+      void immutable() {
+         ListSnapshot<String> snapshot = instance.snapshot();
+         instance.add("D");
+         instance.set(0, "E");
+         assertEquals(Lists.newArrayList("A", "B", "C"), snapshot);
+         assertEquals(Lists.newArrayList("E", "B", "C", "D"), instance.snapshot());
+         assertThrows(UnsupportedOperationException.class, () -> snapshot.add("F"));
+      }
+
+      @Test
+      @DisplayName("should keep its version until the list changes")
+      void version() {
+         ListSnapshot<String> snapshot = instance.snapshot();
+         assertEquals(snapshot.getVersion(), instance.snapshot().getVersion());
+         instance.remove("B");
+         assertTrue(instance.snapshot().getVersion() > snapshot.getVersion());
+      }
+
+      @Test
+      @DisplayName("should let an iteration go on while the list is modified")
+      void iterateWhileModifying() {
+         List<String> seen = new ArrayList<>();
+         for (String element : instance.snapshot()) {
+            seen.add(element);
+            instance.add(element + "'");
+         }
+         assertEquals(Lists.newArrayList("A", "B", "C"), seen);
+         assertEquals(6, instance.size());
+      }
+
+      @Test
+      @DisplayName("should leave the iterators of the list mutable")
+      void liveIterators() {
+         Iterator<String> iterator = instance.iterator();
+         iterator.next();
+         iterator.remove();
+         instance.subList(0, 1).clear();
+         assertEquals(Lists.newArrayList("C"), instance);
+      }
+
+      @Test
+      @DisplayName("should back the iterators of a thread safe list")
+      void threadSafeIterators() {
+         instance = DefaultObservableList.ofThreadSafe(Lists.newArrayList("A", "B", "C"));
+         List<String> seen = new ArrayList<>();
+         Iterator<String> iterator = instance.iterator();
+         while (iterator.hasNext()) {
+            seen.add(iterator.next());
+            instance.remove(0);
+         }
+         assertEquals(Lists.newArrayList("A", "B", "C"), seen);
+         assertTrue(instance.isEmpty());
+         assertThrows(UnsupportedOperationException.class, () -> {
+            instance.add("D");
+            Iterator<String> readOnly = instance.iterator();
+            readOnly.next();
+            readOnly.remove();
+         });
+      }
+
+      @Test
+      @DisplayName("should be refused for lists without a copy of their elements")
+      void withoutCopy() {
+         DefaultObservableList<Row> columnar = DefaultObservableList.ofColumnar(RecordSchema.builder().intColumn("id").build());
+         assertThrows(UnsupportedOperationException.class, columnar::snapshot);
+      }
+
+      @Test
+      @DisplayName("should see the changes of an ongoing batch")
+      void insideBatch() {
+         instance.batch(l -> {
+            l.add("D");
+            assertEquals(Lists.newArrayList("A", "B", "C", "D"), instance.snapshot());
+         });
+      }
+   }
+
+   /**
+    * Exposes the nested event support of GlazedLists so several changes can be published as one event.
+    */
+   static class ScriptedEventList<T> extends BasicEventList<T> {
+
+      void inOneEvent(Runnable changes) {
+         updates.beginEvent(true);
+         try {
+            changes.run();
+         } finally {
+            updates.commitEvent();
+         }
       }
    }
 }
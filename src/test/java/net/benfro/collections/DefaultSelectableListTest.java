@@ -88,6 +88,83 @@ class DefaultSelectableListTest {
       }
    }
 
+   @Nested
+   @DisplayName("A DefaultSelectableList whose content changes")
+   class TestSelectionFollowsListChanges {
+
+      @BeforeEach
+      void setUp() {
+         instance = new DefaultSelectableList<>(GlazedLists.eventList(Lists.newArrayList("A", "B", "C")));
+         instance.setSelectedElement("B");
+      }
+
+      @Test
+      @DisplayName("should shift the selected index on inserts before it")
+      void testInsertBefore() {
+         instance.add(0, "X");
+         instance.add("Y");
+         assertEquals(2, instance.getSelectedIndex());
+         assertEquals("B", instance.getSelectedElement());
+      }
+
+      @Test
+      @DisplayName("should keep the selection when the contents are replaced")
+      void testReplaceContents() {
+         instance.replaceContents(Lists.newArrayList("X", "B", "Y", "C"));
+         assertEquals(1, instance.getSelectedIndex());
+         assertEquals("B", instance.getSelectedElement());
+      }
+
+      @Test
+      @DisplayName("should clear the selection when the selected element is replaced by an unmatched one")
+      void testReplaceContentsUnmatched() {
+         instance.replaceContents(Lists.newArrayList("A", "X", "C"));
+         assertEquals(Lists.newArrayList("A", "X", "C"), instance);
+         assertEquals(-1, instance.getSelectedIndex());
+         assertNull(instance.getSelectedElement());
+      }
+
+      @Test
+      @DisplayName("should keep the selection on the new version of a matched element")
+      void testReplaceContentsByKey() {
+         instance.replaceContents(Lists.newArrayList("A", "b", "C"), s -> s.toUpperCase());
+         assertEquals(1, instance.getSelectedIndex());
+         assertEquals("b", instance.getSelectedElement());
+      }
+
+      @Test
+      @DisplayName("should shift the selected index on deletes before it")
+      void testDeleteBefore() {
+         instance.remove("A");
+         assertEquals(0, instance.getSelectedIndex());
+         assertEquals("B", instance.getSelectedElement());
+      }
+
+      @Test
+      @DisplayName("should clear the selection when the selected element is deleted")
+      void testDeleteSelected() {
+         instance.remove(1);
+         assertEquals(-1, instance.getSelectedIndex());
+         assertNull(instance.getSelectedElement());
+         assertFalse(instance.isElementSelected());
+      }
+
+      @Test
+      @DisplayName("should follow the selected row when its element is replaced")
+      void testReplaceSelected() {
+         instance.set(1, "Z");
+         assertEquals(1, instance.getSelectedIndex());
+         assertEquals("Z", instance.getSelectedElement());
+      }
+
+      @Test
+      @DisplayName("should keep the selection on the same element among duplicates")
+      void testDuplicates() {
+         instance.add(0, "B");
+         assertEquals(2, instance.getSelectedIndex());
+      }
+   }
+
    @Nested
    class TestWithListener {
 
@@ -106,5 +183,13 @@ class DefaultSelectableListTest {
          PropertyChangeEvent propertyChangeEvent = new PropertyChangeEvent(instance, "selectedElement", null, "C");
          verify(listener).propertyChange(refEq(propertyChangeEvent));
       }
+
+      @Test
+      void testListenerDetectsSelectionClearedByRemoval() {
+         instance.setSelectedElement("C");
+         instance.remove("C");
+         PropertyChangeEvent propertyChangeEvent = new PropertyChangeEvent(instance, "selectedElement", "C", null);
+         verify(listener).propertyChange(refEq(propertyChangeEvent));
+      }
    }
 }
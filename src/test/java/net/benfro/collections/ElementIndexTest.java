@@ -0,0 +1,118 @@
+package net.benfro.collections;
+
+import com.google.common.base.Equivalence;
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ElementIndexTest {
+
+   private DefaultObservableList<String> instance;
+
+   @Nested
+   @DisplayName("An indexed DefaultObservableList")
+   class TestEqualsIndex {
+
+      @BeforeEach
+      void setUp() {
+         instance = DefaultObservableList.ofIndexed(Lists.newArrayList("A", "B", "A", "C"), Equivalence.equals());
+      }
+
+      @Test
+      @DisplayName("should find the first and last position of duplicates")
+      void duplicates() {
+         assertEquals(0, instance.indexOf("A"));
+         assertEquals(2, instance.lastIndexOf("A"));
+         assertTrue(instance.contains("C"));
+         assertEquals(-1, instance.indexOf("D"));
+      }
+
+      @Test
+      @DisplayName("should follow appends, updates and removals")
+      void incrementalChanges() {
+         instance.add("D");
+         assertEquals(4, instance.indexOf("D"));
+         instance.set(0, "E");
+         assertEquals(2, instance.indexOf("A"));
+         assertEquals(0, instance.indexOf("E"));
+         instance.remove(4);
+         assertFalse(instance.contains("D"));
+      }
+
+      @Test
+      @DisplayName("should follow inserts and removals before the end")
+      void shiftingChanges() {
+         instance.add(0, "D");
+         assertEquals(1, instance.indexOf("A"));
+         assertEquals(3, instance.lastIndexOf("A"));
+         instance.remove(1);
+         assertEquals(2, instance.indexOf("A"));
+         assertEquals(0, instance.indexOf("D"));
+      }
+
+      @Test
+      @DisplayName("should follow mid-list edits alternating with lookups")
+      void alternatingEdits() {
+         for (int i = 0; i < 100; i++) {
+            instance.add(2, "X" + i);
+            assertEquals(2, instance.indexOf("X" + i));
+            assertEquals(i + 4, instance.lastIndexOf("A"));
+         }
+         for (int i = 99; i >= 0; i--) {
+            assertEquals(2, instance.indexOf("X" + i));
+            instance.remove(2);
+            assertEquals(-1, instance.indexOf("X" + i));
+         }
+         assertEquals(Lists.newArrayList("A", "B", "A", "C"), instance);
+      }
+
+      @Test
+      @DisplayName("should not find an object of another type")
+      void otherType() {
+         assertEquals(-1, instance.indexOf(42));
+      }
+   }
+
+   @Nested
+   @DisplayName("A DefaultObservableList indexed by a key")
+   class TestKeyIndex {
+
+      @Test
+      @DisplayName("should still require elements to be equal")
+      void keyCollision() {
+         instance = DefaultObservableList.ofIndexed(Lists.newArrayList("AB", "AC"), Equivalence.equals().onResultOf((String s) -> s.charAt(0)));
+         assertEquals(1, instance.indexOf("AC"));
+         assertEquals(-1, instance.indexOf("AD"));
+      }
+
+      @Test
+      @DisplayName("should find elements by key alone through a KeyIndex")
+      void keyIndex() {
+         instance = DefaultObservableList.of(Lists.newArrayList("AB", "BC", "CD"));
+         KeyIndex<String> index = instance.indexBy(s -> s.charAt(0));
+         assertEquals(1, index.indexOfKey("BX"));
+         instance.add(0, "DE");
+         instance.remove("BC");
+         assertEquals(-1, index.indexOfKey("BX"));
+         assertEquals(2, index.indexOfKey("CX"));
+         index.close();
+      }
+   }
+
+   @Nested
+   @DisplayName("A DefaultObservableList indexed by identity")
+   class TestIdentityIndex {
+
+      @Test
+      @DisplayName("should find only the same instance")
+      void identity() {
+         final String a = new String("A");
+         final String otherA = new String("A");
+         instance = DefaultObservableList.ofIndexed(Lists.newArrayList(a, otherA), Equivalence.identity());
+         assertEquals(1, instance.indexOf(otherA));
+         assertEquals(0, instance.lastIndexOf(a));
+         assertEquals(-1, instance.indexOf(new String("A")));
+      }
+   }
+}
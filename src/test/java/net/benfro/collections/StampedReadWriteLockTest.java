@@ -0,0 +1,120 @@
+package net.benfro.collections;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StampedReadWriteLockTest {
+
+   private StampedReadWriteLock instance;
+
+   @BeforeEach
+   void setUp() {
+      instance = new StampedReadWriteLock();
+   }
+
+   private boolean tryLockFromOtherThread(boolean write) throws InterruptedException {
+      final AtomicBoolean acquired = new AtomicBoolean();
+      Thread thread = new Thread(() -> {
+         final ca.odell.glazedlists.util.concurrent.Lock lock = write ? instance.writeLock() : instance.readLock();
+         if (lock.tryLock()) {
+            acquired.set(true);
+            lock.unlock();
+         }
+      });
+      thread.start();
+      thread.join();
+      return acquired.get();
+   }
+
+   @Nested
+   @DisplayName("A StampedReadWriteLock")
+   class TestLock {
+
+      @Test
+      @DisplayName("should be reentrant")
+      void reentrant() throws InterruptedException {
+         instance.writeLock().lock();
+         instance.writeLock().lock();
+         instance.readLock().lock();
+         instance.readLock().unlock();
+         instance.writeLock().unlock();
+         assertFalse(tryLockFromOtherThread(false));
+         instance.writeLock().unlock();
+         assertTrue(tryLockFromOtherThread(true));
+      }
+
+      @Test
+      @DisplayName("should keep a read lock taken while writing")
+      void downgrade() throws InterruptedException {
+         instance.writeLock().lock();
+         instance.readLock().lock();
+         instance.writeLock().unlock();
+         assertTrue(tryLockFromOtherThread(false));
+         assertFalse(tryLockFromOtherThread(true));
+         instance.readLock().unlock();
+         assertTrue(tryLockFromOtherThread(true));
+      }
+
+      @Test
+      @DisplayName("should invalidate an optimistic read when written")
+      void optimistic() throws InterruptedException {
+         final long stamp = instance.tryOptimisticRead();
+         assertTrue(instance.validate(stamp));
+         assertTrue(tryLockFromOtherThread(true));
+         assertFalse(instance.validate(stamp));
+      }
+
+      @Test
+      @DisplayName("should reject an unlock by a thread not holding the lock")
+      void unlockNotHeld() {
+         assertThrows(IllegalMonitorStateException.class, () -> instance.writeLock().unlock());
+         assertThrows(IllegalMonitorStateException.class, () -> instance.readLock().unlock());
+      }
+   }
+
+   @Nested
+   @DisplayName("A read mostly DefaultObservableList")
+   class TestOptimisticRead {
+
+      @Test
+      @DisplayName("should read optimistically")
+      void readOptimistic() {
+         DefaultObservableList<String> list = DefaultObservableList.ofReadMostly(Lists.newArrayList("A", "B"));
+         assertEquals("B", list.readOptimistic(l -> l.get(1)));
+      }
+
+      @Test
+      @DisplayName("should give the function a read-only view of the unlocked list")
+      void readOptimisticView() {
+         DefaultObservableList<String> list = DefaultObservableList.ofReadMostly(Lists.newArrayList("A", "B"));
+         assertNotSame(list, list.readOptimistic(l -> l));
+         assertThrows(UnsupportedOperationException.class, () -> list.readOptimistic(l -> l.set(0, "C")));
+      }
+
+      @Test
+      @DisplayName("should only be used by read mostly lists")
+      void optIn() {
+         assertTrue(DefaultObservableList.ofReadMostly(Lists.newArrayList("A")).backingList.getReadWriteLock()
+                 instanceof StampedReadWriteLock);
+         assertFalse(DefaultObservableList.ofThreadSafe(Lists.newArrayList("A")).backingList.getReadWriteLock()
+                 instanceof StampedReadWriteLock);
+      }
+
+      @Test
+      @DisplayName("should fall back to the read lock when writing")
+      void readOptimisticWhileWriting() {
+         DefaultObservableList<String> list = DefaultObservableList.ofReadMostly(Lists.newArrayList("A", "B"));
+         list.getWriteLock().lock();
+         try {
+            list.set(1, "C");
+            assertEquals("C", list.readOptimistic(l -> l.get(1)));
+         } finally {
+            list.getWriteLock().unlock();
+         }
+      }
+   }
+}
@@ -0,0 +1,96 @@
+package net.benfro.collections.columnar;
+
+import net.benfro.collections.DefaultObservableList;
+import org.jdesktop.observablecollections.ObservableListListener;
+import org.junit.jupiter.api.*;
+
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ColumnarEventListTest {
+
+   private static final RecordSchema SCHEMA = RecordSchema.builder()
+           .intColumn("id")
+           .doubleColumn("price")
+           .build();
+
+   private static Row record(int id, double price) {
+      return SCHEMA.newRecord().setInt("id", id).setDouble("price", price);
+   }
+
+   private DefaultObservableList<Row> instance;
+   private ObservableListListener listener;
+
+   @BeforeEach
+   void setUp() {
+      instance = DefaultObservableList.ofColumnar(SCHEMA);
+      instance.addAll(Arrays.asList(record(1, 1.5), record(2, 2.5), record(3, 3.5)));
+      listener = mock(ObservableListListener.class);
+      instance.addObservableListListener(listener);
+   }
+
+   @Nested
+   @DisplayName("A columnar list")
+   class TestColumnarList {
+
+      @Test
+      @DisplayName("should hand out rows reading the stored values")
+      void get() {
+         assertEquals(3, instance.size());
+         assertEquals(2, instance.get(1).getInt("id"));
+         assertEquals(2.5, instance.get(1).getDouble(1));
+         assertEquals(record(2, 2.5), instance.get(1));
+      }
+
+      @Test
+      @DisplayName("should notify the listeners of an added row")
+      void add() {
+         instance.add(0, record(0, 0.5));
+         assertEquals(record(0, 0.5), instance.get(0));
+         assertEquals(record(1, 1.5), instance.get(1));
+         verify(listener).listElementsAdded(instance, 0, 1);
+      }
+
+      @Test
+      @DisplayName("should report a copy of a removed row")
+      void remove() {
+         instance.remove(1);
+         assertEquals(record(3, 3.5), instance.get(1));
+         verify(listener).listElementsRemoved(instance, 1, Arrays.asList(record(2, 2.5)));
+      }
+
+      @Test
+      @DisplayName("should report the old values when a value is written through a row")
+      void setThroughRow() {
+         instance.get(2).setDouble("price", 9.0);
+         assertEquals(9.0, instance.get(2).getDouble("price"));
+         verify(listener).listElementReplaced(instance, 2, record(3, 3.5));
+      }
+
+      @Test
+      @DisplayName("should expose a column for scanning")
+      void column() {
+         final ColumnarEventList columns = new ColumnarEventList(SCHEMA, 0);
+         columns.addAll(Arrays.asList(record(1, 1.0), record(2, 2.0)));
+         final DoubleBuffer prices = columns.getColumn(1).asDoubleBuffer();
+         assertEquals(2, prices.remaining());
+         assertEquals(3.0, prices.get(0) + prices.get(1));
+      }
+
+      @Test
+      @DisplayName("should reject a row of another schema")
+      void otherSchema() {
+         final Row other = RecordSchema.builder().intColumn("id").build().newRecord();
+         assertThrows(IllegalArgumentException.class, () -> instance.add(other));
+      }
+
+      @Test
+      @DisplayName("should reject a value of the wrong type")
+      void wrongType() {
+         assertThrows(IllegalArgumentException.class, () -> instance.get(0).getDouble("id"));
+      }
+   }
+}
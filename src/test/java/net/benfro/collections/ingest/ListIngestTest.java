@@ -0,0 +1,232 @@
+package net.benfro.collections.ingest;
+
+import com.google.common.collect.Lists;
+import net.benfro.collections.DefaultObservableList;
+import org.jdesktop.observablecollections.ObservableList;
+import org.jdesktop.observablecollections.ObservableListListener;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ListIngestTest {
+
+   /**
+    * Holds up the applier in the listener callback of the first batch, so the queue fills up behind it
+    */
+   private static class BlockingListener implements ObservableListListener {
+      final CountDownLatch entered = new CountDownLatch(1);
+      final CountDownLatch released = new CountDownLatch(1);
+
+      @Override
+      public void listElementsAdded(ObservableList list, int index, int length) {
+         entered.countDown();
+         try {
+            released.await(5, TimeUnit.SECONDS);
+         } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+         }
+      }
+
+      @Override
+      public void listElementsRemoved(ObservableList list, int index, List oldElements) {
+      }
+
+      @Override
+      public void listElementReplaced(ObservableList list, int index, Object oldElement) {
+      }
+
+      @Override
+      public void listElementPropertyChanged(ObservableList list, int index) {
+      }
+   }
+
+   private static String keyOf(String entry) {
+      return entry.substring(0, entry.indexOf('='));
+   }
+
+   private DefaultObservableList<String> list;
+
+   @BeforeEach
+   void setUp() {
+      list = DefaultObservableList.ofThreadSafe(new ArrayList<>());
+   }
+
+   @Test
+   @DisplayName("should apply the appends of all producers")
+   void appendsFromManyProducers() throws Exception {
+      ListIngest<String> ingest = ListIngest.builder(list).capacity(64).build();
+      List<Thread> producers = new ArrayList<>();
+      for (int p = 0; p < 4; p++) {
+         final int producer = p;
+         producers.add(new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+               ingest.add(producer + "=" + i);
+            }
+         }));
+      }
+      producers.forEach(Thread::start);
+      for (Thread producer : producers) {
+         producer.join();
+      }
+      ingest.close();
+
+      assertEquals(4000, list.size());
+      assertEquals(4000, ingest.getAppliedCount());
+      assertEquals(4000, ingest.getSubmittedCount());
+      assertEquals(0, ingest.getQueueDepth());
+      assertTrue(ingest.getBatchCount() >= 1);
+      assertEquals(1000, list.stream().filter(s -> s.startsWith("2=")).count());
+   }
+
+   @Test
+   @DisplayName("should keep the order of one producer")
+   void producerOrder() throws Exception {
+      ListIngest<String> ingest = ListIngest.builder(list).keyedBy(ListIngestTest::keyOf).build();
+      ingest.put("a=1");
+      ingest.put("b=1");
+      ingest.add("c=1");
+      ingest.put("a=2");
+      ingest.remove("b=");
+      ingest.put("d=1");
+      ingest.close();
+
+      assertEquals(Lists.newArrayList("a=2", "c=1", "d=1"), list);
+   }
+
+   @Test
+   @DisplayName("should drop the oldest mutations when full")
+   void dropOldest() throws Exception {
+      BlockingListener listener = new BlockingListener();
+      list.addObservableListListener(listener);
+      ListIngest<String> ingest = ListIngest.builder(list)
+              .capacity(4)
+              .policy(BackpressurePolicy.DROP_OLDEST)
+              .build();
+      ingest.add("x=0");
+      assertTrue(listener.entered.await(5, TimeUnit.SECONDS));
+      for (int i = 1; i <= 7; i++) {
+         ingest.add("x=" + i);
+      }
+      assertEquals(4, ingest.getQueueDepth());
+      listener.released.countDown();
+      ingest.close();
+
+      assertEquals(3, ingest.getDroppedCount());
+      assertEquals(Lists.newArrayList("x=0", "x=4", "x=5", "x=6", "x=7"), list);
+      assertEquals(4, ingest.getPeakQueueDepth());
+   }
+
+   @Test
+   @DisplayName("should apply only the latest mutation per key when coalescing")
+   void coalesceByKey() throws Exception {
+      BlockingListener listener = new BlockingListener();
+      list.addObservableListListener(listener);
+      ListIngest<String> ingest = ListIngest.builder(list)
+              .capacity(4)
+              .policy(BackpressurePolicy.COALESCE_BY_KEY)
+              .keyedBy(ListIngestTest::keyOf)
+              .build();
+      ingest.add("first=0");
+      assertTrue(listener.entered.await(5, TimeUnit.SECONDS));
+      for (int i = 1; i <= 100; i++) {
+         ingest.put("a=" + i);
+         ingest.put("b=" + i);
+      }
+      assertEquals(2, ingest.getQueueDepth());
+      listener.released.countDown();
+      ingest.close();
+
+      assertEquals(198, ingest.getCoalescedCount());
+      assertEquals(Lists.newArrayList("first=0", "a=100", "b=100"), list);
+      assertEquals(2, ingest.getBatchCount());
+      assertEquals(2, ingest.getLastBatchSize());
+   }
+
+   @Test
+   @DisplayName("should apply a batch as one event")
+   void oneEventPerBatch() throws Exception {
+      BlockingListener listener = new BlockingListener();
+      list.addObservableListListener(listener);
+      ListIngest<String> ingest = ListIngest.builder(list).build();
+      ingest.add("x=0");
+      assertTrue(listener.entered.await(5, TimeUnit.SECONDS));
+      for (int i = 1; i <= 50; i++) {
+         ingest.add("x=" + i);
+      }
+      listener.released.countDown();
+      ingest.close();
+
+      assertEquals(51, list.size());
+      assertEquals(2, ingest.getBatchCount());
+      assertEquals(50, ingest.getLargestBatchSize());
+      assertEquals(25.5, ingest.getAverageBatchSize());
+   }
+
+   @Test
+   @DisplayName("should apply every mutation accepted while closing")
+   void closeWhileSubmitting() throws Exception {
+      ListIngest<String> ingest = ListIngest.builder(list)
+              .capacity(8)
+              .policy(BackpressurePolicy.COALESCE_BY_KEY)
+              .keyedBy(ListIngestTest::keyOf)
+              .build();
+      AtomicInteger accepted = new AtomicInteger();
+      CountDownLatch allSubmitting = new CountDownLatch(4);
+      List<Thread> producers = new ArrayList<>();
+      for (int p = 0; p < 4; p++) {
+         final int producer = p;
+         producers.add(new Thread(() -> {
+            try {
+               for (int i = 0; ; i++) {
+                  ingest.put(producer + "-" + i + "=");
+                  accepted.incrementAndGet();
+                  if (i == 0) {
+                     allSubmitting.countDown();
+                  }
+               }
+            } catch (IllegalStateException closed) {
+               // expected once the ingest is closed
+            }
+         }));
+      }
+      producers.forEach(Thread::start);
+      assertTrue(allSubmitting.await(5, TimeUnit.SECONDS));
+      ingest.close();
+      for (Thread producer : producers) {
+         producer.join();
+      }
+
+      assertEquals(accepted.get(), list.size());
+      assertEquals(accepted.get(), ingest.getAppliedCount());
+   }
+
+   @Test
+   @DisplayName("should not count a failed batch as applied")
+   void failedBatch() throws Exception {
+      ObservableListListener failing = mock(ObservableListListener.class);
+      doThrow(new IllegalStateException("listener failed")).when(failing).listElementsAdded(any(), anyInt(), anyInt());
+      list.addObservableListListener(failing);
+      ListIngest<String> ingest = ListIngest.builder(list).build();
+      ingest.add("x=1");
+      ingest.close();
+
+      assertEquals(0, ingest.getAppliedCount());
+      assertEquals(0, ingest.getBatchCount());
+      assertEquals(1, ingest.getFailedCount());
+   }
+
+   @Test
+   @DisplayName("should refuse mutations once closed")
+   void closed() throws Exception {
+      ListIngest<String> ingest = ListIngest.builder(list).build();
+      ingest.close();
+      assertThrows(IllegalStateException.class, () -> ingest.add("x=1"));
+   }
+}
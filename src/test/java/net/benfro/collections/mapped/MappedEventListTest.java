@@ -0,0 +1,130 @@
+package net.benfro.collections.mapped;
+
+import net.benfro.collections.DefaultObservableList;
+import org.jdesktop.observablecollections.ObservableListListener;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MappedEventListTest {
+
+   @TempDir
+   Path directory;
+
+   private Path dataFile;
+
+   @BeforeEach
+   void setUp() {
+      dataFile = directory.resolve("reference.dat");
+   }
+
+   @Nested
+   @DisplayName("A new memory-mapped list")
+   class TestNewList {
+
+      @Test
+      @DisplayName("should be empty")
+      void empty() throws IOException {
+         try (MappedEventList<String> list = MappedEventList.open(dataFile, RecordCodec.utf8())) {
+            assertTrue(list.isEmpty());
+         }
+      }
+
+      @Test
+      @DisplayName("should notify the listeners of appended elements")
+      void append() {
+         final DefaultObservableList<String> instance = assertDoesNotThrow(() -> DefaultObservableList.ofMapped(dataFile, RecordCodec.utf8()));
+         final ObservableListListener listener = mock(ObservableListListener.class);
+         instance.addObservableListListener(listener);
+
+         instance.addAll(Arrays.asList("A", "BB", ""));
+         instance.add("CCC");
+
+         assertEquals(Arrays.asList("A", "BB", "", "CCC"), new ArrayList<>(instance));
+         verify(listener).listElementsAdded(instance, 0, 3);
+         verify(listener).listElementsAdded(instance, 3, 1);
+      }
+
+      @Test
+      @DisplayName("should only be appended to")
+      void insert() throws IOException {
+         try (MappedEventList<String> list = MappedEventList.open(dataFile, RecordCodec.utf8())) {
+            list.add("A");
+            assertThrows(UnsupportedOperationException.class, () -> list.add(0, "B"));
+            assertThrows(UnsupportedOperationException.class, () -> list.remove(0));
+         }
+      }
+   }
+
+   @Nested
+   @DisplayName("A reopened memory-mapped list")
+   class TestReopenedList {
+
+      private final List<String> written = new ArrayList<>();
+
+      @BeforeEach
+      void setUp() throws IOException {
+         try (MappedEventList<String> list = MappedEventList.open(dataFile, RecordCodec.utf8())) {
+            for (int i = 0; i < 5000; i++) {
+               written.add("row " + i);
+            }
+            list.addAll(written);
+         }
+      }
+
+      @Test
+      @DisplayName("should read the elements written before")
+      void read() throws IOException {
+         try (MappedEventList<String> list = MappedEventList.open(dataFile, RecordCodec.utf8())) {
+            assertEquals(written.size(), list.size());
+            assertEquals("row 4321", list.get(4321));
+            assertEquals(written, new ArrayList<>(list));
+         }
+      }
+
+      @Test
+      @DisplayName("should continue after the last element")
+      void appendAfterReopen() throws IOException {
+         try (MappedEventList<String> list = MappedEventList.open(dataFile, RecordCodec.utf8())) {
+            list.add("last");
+            assertEquals(5001, list.size());
+            assertEquals("row 4999", list.get(4999));
+            assertEquals("last", list.get(5000));
+         }
+      }
+
+      @Test
+      @DisplayName("should be readable without writing to its files")
+      void readOnly() throws IOException {
+         final Path indexFile = dataFile.resolveSibling(dataFile.getFileName() + MappedEventList.INDEX_SUFFIX);
+         final long dataBytes = Files.size(dataFile);
+         final long indexBytes = Files.size(indexFile);
+         try (MappedEventList<String> list = MappedEventList.openReadOnly(dataFile, RecordCodec.utf8())) {
+            assertTrue(list.isReadOnly());
+            assertEquals(written, new ArrayList<>(list));
+            assertThrows(UnsupportedOperationException.class, () -> list.add("last"));
+            assertThrows(UnsupportedOperationException.class, () -> list.addAll(Arrays.asList("last")));
+            assertEquals(written.size(), list.size());
+         }
+         assertEquals(dataBytes, Files.size(dataFile));
+         assertEquals(indexBytes, Files.size(indexFile));
+      }
+
+      @Test
+      @DisplayName("should not be created when opened read-only")
+      void readOnlyMissing() {
+         assertThrows(NoSuchFileException.class,
+                 () -> MappedEventList.openReadOnly(directory.resolve("missing.dat"), RecordCodec.utf8()));
+      }
+   }
+}
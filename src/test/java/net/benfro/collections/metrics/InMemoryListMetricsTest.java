@@ -0,0 +1,137 @@
+package net.benfro.collections.metrics;
+
+import ca.odell.glazedlists.util.concurrent.Lock;
+import com.google.common.collect.Lists;
+import net.benfro.collections.DefaultObservableList;
+import org.jdesktop.observablecollections.ObservableListListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryListMetricsTest {
+
+   @Nested
+   @DisplayName("A LatencyHistogram")
+   class TestHistogram {
+
+      private LatencyHistogram histogram;
+
+      @BeforeEach
+      void setUp() {
+         histogram = new LatencyHistogram();
+      }
+
+      @Test
+      @DisplayName("should report zero when empty")
+      void testEmpty() {
+         assertEquals(0, histogram.getCount());
+         assertEquals(0, histogram.getPercentile(99));
+      }
+
+      @Test
+      @DisplayName("should report percentiles within a factor of two")
+      void testPercentiles() {
+         for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+         }
+         histogram.record(1_000_000);
+
+         assertEquals(100, histogram.getCount());
+         assertTrue(histogram.getPercentile(50) >= 1000 && histogram.getPercentile(50) < 2000);
+         assertTrue(histogram.getPercentile(99) < 2000);
+         assertEquals(1_000_000, histogram.getPercentile(100));
+         assertEquals(1_000_000, histogram.getMax());
+      }
+   }
+
+   @Nested
+   @DisplayName("An InMemoryListMetrics attached to a list")
+   class TestWithList {
+
+      private InMemoryListMetrics metrics;
+      private DefaultObservableList<String> list;
+      private ObservableListListener listener;
+
+      @BeforeEach
+      void setUp() {
+         metrics = new InMemoryListMetrics();
+         list = DefaultObservableList.ofThreadSafe(Lists.newArrayList("A", "B", "C"));
+         listener = Mockito.mock(ObservableListListener.class);
+         list.addObservableListListener(listener);
+         list.setMetrics(metrics);
+      }
+
+      @Test
+      @DisplayName("should count mutations by type")
+      void testMutationCounts() {
+         list.addAll(Lists.newArrayList("D", "E"));
+         list.remove("A");
+         list.set(0, "X");
+
+         assertEquals(2, metrics.getMutationCount(ListMetrics.Mutation.ADDED));
+         assertEquals(1, metrics.getMutationCount(ListMetrics.Mutation.REMOVED));
+         assertEquals(1, metrics.getMutationCount(ListMetrics.Mutation.REPLACED));
+         assertEquals(3, metrics.getEventCount());
+      }
+
+      @Test
+      @DisplayName("should record the latency of every listener")
+      void testListenerLatencies() {
+         list.add("D");
+         list.add("E");
+
+         assertEquals(2, metrics.getListenerLatencies(listener).getCount());
+         assertEquals(1, metrics.getListenerEventCounts().size());
+      }
+
+      @Test
+      @DisplayName("should record lock wait and hold times")
+      void testLockTimes() {
+         list.readWithLock(l -> l.get(0));
+         list.batch(l -> l.add("D"));
+
+         assertEquals(1, metrics.getLockHolds(ListMetrics.LockType.READ).getCount());
+         assertEquals(1, metrics.getLockHolds(ListMetrics.LockType.WRITE).getCount());
+      }
+
+      @Test
+      @DisplayName("should refuse to be replaced while the list is locked")
+      void testReplaceWhileLocked() {
+         final Lock lock = list.getWriteLock();
+         lock.lock();
+         try {
+            assertThrows(IllegalStateException.class, () -> list.setMetrics(ListMetrics.NOOP));
+         } finally {
+            lock.unlock();
+         }
+         list.readWithLock(l -> {
+            assertThrows(IllegalStateException.class, () -> l.setMetrics(ListMetrics.NOOP));
+            return null;
+         });
+
+         assertEquals(1, metrics.getLockHolds(ListMetrics.LockType.WRITE).getCount());
+         assertEquals(1, metrics.getLockHolds(ListMetrics.LockType.READ).getCount());
+         list.setMetrics(ListMetrics.NOOP);
+      }
+
+      @Test
+      @DisplayName("should be reachable over JMX")
+      void testJmx() throws Exception {
+         metrics.register("test list");
+         try {
+            list.add("D");
+            ObjectName name = new ObjectName("net.benfro.collections:type=ListMetrics,name=\"test list\"");
+            assertEquals(1L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "EventCount"));
+         } finally {
+            metrics.unregister();
+         }
+      }
+   }
+}
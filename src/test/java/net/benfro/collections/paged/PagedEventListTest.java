@@ -0,0 +1,183 @@
+package net.benfro.collections.paged;
+
+import net.benfro.collections.DefaultObservableList;
+import net.benfro.collections.DefaultSelectableList;
+import org.jdesktop.observablecollections.ObservableListListener;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PagedEventListTest {
+
+   private static final String PLACEHOLDER = "...";
+
+   /**
+    * Serves "row 0", "row 1", ... and counts the pages loaded
+    */
+   private static class RowSource implements PagedDataSource<String> {
+      int size;
+      final List<Integer> loadedOffsets = new ArrayList<>();
+
+      RowSource(int size) {
+         this.size = size;
+      }
+
+      @Override
+      public int size() {
+         return size;
+      }
+
+      @Override
+      public List<String> loadPage(int offset, int length) {
+         loadedOffsets.add(offset);
+         List<String> rows = new ArrayList<>();
+         for (int i = offset; i < offset + length; i++) {
+            rows.add("row " + i);
+         }
+         return rows;
+      }
+   }
+
+   /**
+    * Runs the page loads when asked to
+    */
+   private static class QueuedExecutor implements Executor {
+      final Queue<Runnable> tasks = new ArrayDeque<>();
+
+      @Override
+      public void execute(Runnable command) {
+         tasks.add(command);
+      }
+
+      void runAll() {
+         while (!tasks.isEmpty()) {
+            tasks.poll().run();
+         }
+      }
+   }
+
+   private RowSource source;
+   private QueuedExecutor loader;
+   private PagedEventList<String> pagedList;
+   private ObservableListListener listener;
+
+   @BeforeEach
+   void setUp() {
+      source = new RowSource(100);
+      loader = new QueuedExecutor();
+      pagedList = new PagedEventList<>(source, 10, 3, index -> PLACEHOLDER, loader);
+      listener = mock(ObservableListListener.class);
+   }
+
+   @Nested
+   @DisplayName("A paged list")
+   class TestPagedList {
+
+      private DefaultObservableList<String> instance;
+
+      @BeforeEach
+      void setUp() {
+         instance = DefaultObservableList.ofPaged(pagedList);
+         instance.addObservableListListener(listener);
+      }
+
+      @Test
+      @DisplayName("should take its size from the source without loading anything")
+      void size() {
+         assertEquals(100, instance.size());
+         loader.runAll();
+         assertTrue(source.loadedOffsets.isEmpty());
+      }
+
+      @Test
+      @DisplayName("should return a placeholder and replace it when the page arrives")
+      void loadOnDemand() {
+         assertEquals(PLACEHOLDER, instance.get(25));
+         loader.runAll();
+         assertEquals("row 25", instance.get(25));
+         verify(listener).listElementReplaced(instance, 25, PLACEHOLDER);
+      }
+
+      @Test
+      @DisplayName("should prefetch the neighbouring pages without notifying about them")
+      void prefetch() {
+         instance.get(25);
+         loader.runAll();
+         assertEquals(Arrays.asList(20, 10, 30), source.loadedOffsets);
+         assertTrue(pagedList.isLoaded(15));
+         verify(listener, never()).listElementReplaced(instance, 15, PLACEHOLDER);
+      }
+
+      @Test
+      @DisplayName("should not prefetch again while a page is in flight")
+      void prefetchOnce() {
+         instance.get(25);
+         instance.get(26);
+         instance.get(15);
+         loader.runAll();
+         assertEquals(Arrays.asList(20, 10, 30), source.loadedOffsets);
+      }
+
+      @Test
+      @DisplayName("should request a page again when its load was rejected")
+      void rejected() {
+         final boolean[] reject = {true};
+         PagedEventList<String> rejecting = new PagedEventList<>(source, 10, 3, index -> PLACEHOLDER, command -> {
+            if (reject[0]) {
+               throw new RejectedExecutionException();
+            }
+            loader.execute(command);
+         });
+         assertEquals(PLACEHOLDER, rejecting.get(25));
+         reject[0] = false;
+         rejecting.get(25);
+         loader.runAll();
+         assertEquals("row 25", rejecting.get(25));
+      }
+
+      @Test
+      @DisplayName("should evict the least recently used page")
+      void evict() {
+         instance.get(25);
+         loader.runAll();
+         instance.get(55);
+         loader.runAll();
+         assertFalse(pagedList.isLoaded(25));
+         assertTrue(pagedList.isLoaded(55));
+      }
+
+      @Test
+      @DisplayName("should report rows added to the source on refresh")
+      void refresh() {
+         source.size = 105;
+         pagedList.refresh();
+         assertEquals(105, instance.size());
+         verify(listener).listElementsAdded(instance, 100, 5);
+      }
+   }
+
+   @Nested
+   @DisplayName("A selectable paged list")
+   class TestSelectablePagedList {
+
+      @Test
+      @DisplayName("should follow the selected row when its page arrives")
+      void selection() {
+         DefaultSelectableList<String> instance = DefaultSelectableList.ofPaged(pagedList);
+         instance.setSelectedIndex(42);
+         assertEquals(PLACEHOLDER, instance.getSelectedElement());
+         loader.runAll();
+         assertEquals("row 42", instance.getSelectedElement());
+         assertEquals(42, instance.getSelectedIndex());
+      }
+   }
+}
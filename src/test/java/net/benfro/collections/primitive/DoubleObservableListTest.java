@@ -0,0 +1,103 @@
+package net.benfro.collections.primitive;
+
+import com.google.common.collect.Lists;
+import org.jdesktop.observablecollections.ObservableListListener;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DoubleObservableListTest {
+
+   private DoubleObservableList instance;
+   private ObservableListListener listener;
+
+   @BeforeEach
+   void setUp() {
+      instance = DoubleObservableList.of(1.0, 2.0, 3.0);
+      listener = mock(ObservableListListener.class);
+      instance.addObservableListListener(listener);
+   }
+
+   @Nested
+   @DisplayName("The unboxed accessors")
+   class TestUnboxedAccess {
+
+      @Test
+      @DisplayName("should read and write values in place")
+      void getAndSet() {
+         assertEquals(2.0, instance.getDouble(1));
+         assertEquals(2.0, instance.setDouble(1, 5.0));
+         assertEquals(5.0, instance.getDouble(1));
+         verify(listener).listElementReplaced(instance, 1, 2.0);
+      }
+
+      @Test
+      @DisplayName("should add an array of values in one event")
+      void addAllArray() {
+         instance.addAll(1, new double[]{7.0, 8.0});
+         assertArrayEquals(new double[]{1.0, 7.0, 8.0, 2.0, 3.0}, instance.toDoubleArray());
+         verify(listener).listElementsAdded(instance, 1, 2);
+         verifyNoMoreInteractions(listener);
+      }
+
+      @Test
+      @DisplayName("should remove a value by index")
+      void removeDouble() {
+         assertEquals(1.0, instance.removeDouble(0));
+         assertArrayEquals(new double[]{2.0, 3.0}, instance.toDoubleArray());
+         verify(listener).listElementsRemoved(instance, 0, Lists.newArrayList(1.0));
+      }
+
+      @Test
+      @DisplayName("should reject an index out of range")
+      void outOfRange() {
+         assertThrows(IndexOutOfBoundsException.class, () -> instance.getDouble(3));
+         assertThrows(IndexOutOfBoundsException.class, () -> instance.setDouble(-1, 0.0));
+      }
+   }
+
+   @Nested
+   @DisplayName("The List methods")
+   class TestBoxedAccess {
+
+      @Test
+      @DisplayName("should behave as a list of boxed values")
+      void listContract() {
+         assertEquals(Arrays.asList(1.0, 2.0, 3.0), instance);
+         assertTrue(instance.contains(3.0));
+         assertEquals(2, instance.indexOf(3.0));
+      }
+
+      @Test
+      @DisplayName("should add a collection in one event")
+      void addAllCollection() {
+         instance.addAll(Arrays.asList(4.0, 5.0));
+         assertEquals(5, instance.size());
+         verify(listener).listElementsAdded(instance, 3, 2);
+         verifyNoMoreInteractions(listener);
+      }
+
+      @Test
+      @DisplayName("should clear a range in one event")
+      void clearSubList() {
+         instance.subList(0, 2).clear();
+         assertEquals(Arrays.asList(3.0), instance);
+         verify(listener).listElementsRemoved(instance, 0, Lists.newArrayList(1.0, 2.0));
+         verifyNoMoreInteractions(listener);
+      }
+
+      @Test
+      @DisplayName("should grow beyond the initial capacity")
+      void grow() {
+         DoubleObservableList list = new DoubleObservableList(0);
+         for (int i = 0; i < 100; i++) {
+            list.add((double) i);
+         }
+         assertEquals(100, list.size());
+         assertEquals(99.0, list.getDouble(99));
+      }
+   }
+}
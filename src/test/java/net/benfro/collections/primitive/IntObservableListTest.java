@@ -0,0 +1,111 @@
+package net.benfro.collections.primitive;
+
+import com.google.common.collect.Lists;
+import org.jdesktop.observablecollections.ObservableListListener;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IntObservableListTest {
+
+   private IntObservableList instance;
+   private ObservableListListener listener;
+
+   @BeforeEach
+   void setUp() {
+      instance = IntObservableList.of(1, 2, 3);
+      listener = mock(ObservableListListener.class);
+      instance.addObservableListListener(listener);
+   }
+
+   @Nested
+   @DisplayName("The unboxed accessors")
+   class TestUnboxedAccess {
+
+      @Test
+      @DisplayName("should read and write values in place")
+      void getAndSet() {
+         assertEquals(2, instance.getInt(1));
+         assertEquals(2, instance.setInt(1, 5));
+         assertEquals(5, instance.getInt(1));
+         verify(listener).listElementReplaced(instance, 1, 2);
+      }
+
+      @Test
+      @DisplayName("should add an array of values in one event")
+      void addAllArray() {
+         instance.addAll(1, new int[]{7, 8});
+         assertArrayEquals(new int[]{1, 7, 8, 2, 3}, instance.toIntArray());
+         verify(listener).listElementsAdded(instance, 1, 2);
+         verifyNoMoreInteractions(listener);
+      }
+
+      @Test
+      @DisplayName("should remove a value by index")
+      void removeInt() {
+         assertEquals(1, instance.removeInt(0));
+         assertArrayEquals(new int[]{2, 3}, instance.toIntArray());
+         verify(listener).listElementsRemoved(instance, 0, Lists.newArrayList(1));
+      }
+
+      @Test
+      @DisplayName("should reject an index out of range")
+      void outOfRange() {
+         assertThrows(IndexOutOfBoundsException.class, () -> instance.getInt(3));
+         assertThrows(IndexOutOfBoundsException.class, () -> instance.setInt(-1, 0));
+      }
+   }
+
+   @Nested
+   @DisplayName("The List methods")
+   class TestBoxedAccess {
+
+      @Test
+      @DisplayName("should behave as a list of boxed values")
+      void listContract() {
+         assertEquals(Arrays.asList(1, 2, 3), instance);
+         assertTrue(instance.contains(3));
+         assertEquals(2, instance.indexOf(3));
+      }
+
+      @Test
+      @DisplayName("should add a collection in one event")
+      void addAllCollection() {
+         instance.addAll(Arrays.asList(4, 5));
+         assertEquals(5, instance.size());
+         verify(listener).listElementsAdded(instance, 3, 2);
+         verifyNoMoreInteractions(listener);
+      }
+
+      @Test
+      @DisplayName("should clear a range in one event")
+      void clearSubList() {
+         instance.subList(0, 2).clear();
+         assertEquals(Arrays.asList(3), instance);
+         verify(listener).listElementsRemoved(instance, 0, Lists.newArrayList(1, 2));
+         verifyNoMoreInteractions(listener);
+      }
+
+      @Test
+      @DisplayName("should grow beyond the initial capacity")
+      void grow() {
+         IntObservableList list = new IntObservableList(0);
+         for (int i = 0; i < 100; i++) {
+            list.add(i);
+         }
+         assertEquals(100, list.size());
+         assertEquals(99, list.getInt(99));
+      }
+
+      @Test
+      @DisplayName("should remove an int by index and an Integer by value")
+      void removeOverloads() {
+         assertEquals(Integer.valueOf(1), instance.remove(0));
+         assertTrue(instance.remove(Integer.valueOf(3)));
+         assertArrayEquals(new int[]{2}, instance.toIntArray());
+      }
+   }
+}
@@ -0,0 +1,111 @@
+package net.benfro.collections.primitive;
+
+import com.google.common.collect.Lists;
+import org.jdesktop.observablecollections.ObservableListListener;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LongObservableListTest {
+
+   private LongObservableList instance;
+   private ObservableListListener listener;
+
+   @BeforeEach
+   void setUp() {
+      instance = LongObservableList.of(1L, 2L, 3L);
+      listener = mock(ObservableListListener.class);
+      instance.addObservableListListener(listener);
+   }
+
+   @Nested
+   @DisplayName("The unboxed accessors")
+   class TestUnboxedAccess {
+
+      @Test
+      @DisplayName("should read and write values in place")
+      void getAndSet() {
+         assertEquals(2L, instance.getLong(1));
+         assertEquals(2L, instance.setLong(1, 5L));
+         assertEquals(5L, instance.getLong(1));
+         verify(listener).listElementReplaced(instance, 1, 2L);
+      }
+
+      @Test
+      @DisplayName("should add an array of values in one event")
+      void addAllArray() {
+         instance.addAll(1, new long[]{7L, 8L});
+         assertArrayEquals(new long[]{1L, 7L, 8L, 2L, 3L}, instance.toLongArray());
+         verify(listener).listElementsAdded(instance, 1, 2);
+         verifyNoMoreInteractions(listener);
+      }
+
+      @Test
+      @DisplayName("should remove a value by index")
+      void removeLong() {
+         assertEquals(1L, instance.removeLong(0));
+         assertArrayEquals(new long[]{2L, 3L}, instance.toLongArray());
+         verify(listener).listElementsRemoved(instance, 0, Lists.newArrayList(1L));
+      }
+
+      @Test
+      @DisplayName("should reject an index out of range")
+      void outOfRange() {
+         assertThrows(IndexOutOfBoundsException.class, () -> instance.getLong(3));
+         assertThrows(IndexOutOfBoundsException.class, () -> instance.setLong(-1, 0L));
+      }
+   }
+
+   @Nested
+   @DisplayName("The List methods")
+   class TestBoxedAccess {
+
+      @Test
+      @DisplayName("should behave as a list of boxed values")
+      void listContract() {
+         assertEquals(Arrays.asList(1L, 2L, 3L), instance);
+         assertTrue(instance.contains(3L));
+         assertEquals(2, instance.indexOf(3L));
+      }
+
+      @Test
+      @DisplayName("should add a collection in one event")
+      void addAllCollection() {
+         instance.addAll(Arrays.asList(4L, 5L));
+         assertEquals(5, instance.size());
+         verify(listener).listElementsAdded(instance, 3, 2);
+         verifyNoMoreInteractions(listener);
+      }
+
+      @Test
+      @DisplayName("should clear a range in one event")
+      void clearSubList() {
+         instance.subList(0, 2).clear();
+         assertEquals(Arrays.asList(3L), instance);
+         verify(listener).listElementsRemoved(instance, 0, Lists.newArrayList(1L, 2L));
+         verifyNoMoreInteractions(listener);
+      }
+
+      @Test
+      @DisplayName("should grow beyond the initial capacity")
+      void grow() {
+         LongObservableList list = new LongObservableList(0);
+         for (int i = 0; i < 100; i++) {
+            list.add((long) i);
+         }
+         assertEquals(100, list.size());
+         assertEquals(99L, list.getLong(99));
+      }
+
+      @Test
+      @DisplayName("should keep values beyond the int range")
+      void wideValues() {
+         instance.addLong(Long.MAX_VALUE);
+         instance.setLong(0, Long.MIN_VALUE);
+         assertArrayEquals(new long[]{Long.MIN_VALUE, 2L, 3L, Long.MAX_VALUE}, instance.toLongArray());
+      }
+   }
+}
@@ -17,6 +17,7 @@ import java.util.Collections;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @DisplayName("A DefaultMultiSelectableList")
 class DefaultMultiSelectableListTest {
@@ -55,6 +56,26 @@ class DefaultMultiSelectableListTest {
       verify(mock, times(1)).propertyChange(eventCaptor.capture());
    }
 
+   @Test
+   @DisplayName("should select nothing and fire no event when an element is not in the list")
+   void testSelectMissingElement() {
+      assertThrows(IllegalArgumentException.class, () -> instance.selectElements("B", "X"));
+      assertTrue(instance.getSelectedElements().isEmpty());
+
+      verifyNoInteractions(mock);
+   }
+
+   @Test
+   @DisplayName("should deselect elements replaced by unmatched ones when the contents are replaced")
+   void testReplaceContents() {
+      instance.selectElements("B", "E");
+      instance.replaceContents(Lists.newArrayList("A", "B", "C", "D", "X", "F"));
+      assertEquals(Collections.singletonList("B"), instance.getSelectedElements());
+
+      verify(mock, times(2)).propertyChange(eventCaptor.capture());
+      assertRange(4, 4, eventCaptor.getValue());
+   }
+
    @Test
    void testSelectOneIndex() {
       instance.selectIndices(4);
@@ -66,9 +87,10 @@ class DefaultMultiSelectableListTest {
    @Test
    void testSelectMoreElement() {
       instance.selectElements("E", "B", "F");
-      assertEquals(Lists.newArrayList("E", "B", "F"), instance.getSelectedElements());
+      assertEquals(Lists.newArrayList("B", "E", "F"), instance.getSelectedElements());
 
-      verify(mock, times(3)).propertyChange(eventCaptor.capture());
+      verify(mock, times(1)).propertyChange(eventCaptor.capture());
+      assertRange(1, 5, eventCaptor.getValue());
    }
 
    @Test
@@ -84,7 +106,8 @@ class DefaultMultiSelectableListTest {
       instance.selectElements("E", "B", "F");
       instance.clearSelected();
 
-      verify(mock, times(6)).propertyChange(eventCaptor.capture());
+      assertTrue(instance.getSelectedElements().isEmpty());
+      verify(mock, times(2)).propertyChange(eventCaptor.capture());
    }
 
    @Test
@@ -111,7 +134,7 @@ class DefaultMultiSelectableListTest {
       instance.removeAll(instance);
       assertTrue(instance.getSelectedElements().isEmpty());
 
-      verify(mock, times(6)).propertyChange(eventCaptor.capture());
+      verify(mock, times(2)).propertyChange(eventCaptor.capture());
    }
 
    @Test
@@ -127,4 +150,106 @@ class DefaultMultiSelectableListTest {
       assertTrue(instance.isElementSelected("E"));
       assertFalse(instance.isElementSelected("A"));
    }
+
+   @Test
+   void testIsIndexSelected() {
+      instance.selectIndices(1, 4);
+      assertTrue(instance.isIndexSelected(1));
+      assertTrue(instance.isIndexSelected(4));
+      assertFalse(instance.isIndexSelected(0));
+   }
+
+   @Test
+   void testSelectionFollowsInsertsAndDeletes() {
+      instance.selectElements("B", "E");
+      instance.add(0, "X");
+      instance.remove("D");
+      assertTrue(instance.isIndexSelected(2));
+      assertTrue(instance.isIndexSelected(4));
+      assertFalse(instance.isIndexSelected(5));
+      assertEquals(Lists.newArrayList("B", "E"), instance.getSelectedElements());
+   }
+
+   @Test
+   void testSelectionFollowsBulkInsertsAndDeletes() {
+      instance.selectElements("B", "C", "D");
+      instance.addAll(1, Lists.newArrayList("X", "Y"));
+      instance.subList(4, 6).clear();
+
+      assertEquals(Lists.newArrayList("A", "X", "Y", "B", "E", "F"), instance);
+      assertEquals(Lists.newArrayList("B"), instance.getSelectedElements());
+      assertTrue(instance.isIndexSelected(3));
+      assertFalse(instance.isIndexSelected(4));
+      verify(mock, times(2)).propertyChange(eventCaptor.capture());
+      assertRange(4, 5, eventCaptor.getValue());
+   }
+
+   @Test
+   void testSelectAlreadySelectedShouldNotFireEvent() {
+      instance.selectElements("E");
+      instance.selectIndices(4);
+
+      verify(mock, times(1)).propertyChange(eventCaptor.capture());
+   }
+
+   @Test
+   void testSelectRange() {
+      instance.selectRange(1, 4);
+      assertEquals(Lists.newArrayList("B", "C", "D"), instance.getSelectedElements());
+
+      verify(mock, times(1)).propertyChange(eventCaptor.capture());
+      assertRange(1, 3, eventCaptor.getValue());
+   }
+
+   @Test
+   void testDeselectRange() {
+      instance.selectAll();
+      instance.deselectRange(0, 2);
+      assertEquals(Lists.newArrayList("C", "D", "E", "F"), instance.getSelectedElements());
+
+      verify(mock, times(2)).propertyChange(eventCaptor.capture());
+      assertRange(0, 1, eventCaptor.getValue());
+   }
+
+   @Test
+   void testSelectRangeOutOfBounds() {
+      assertThrows(IndexOutOfBoundsException.class, () -> instance.selectRange(4, 7));
+   }
+
+   @Test
+   void testSelectAll() {
+      instance.selectAll();
+      assertEquals(Lists.newArrayList("A", "B", "C", "D", "E", "F"), instance.getSelectedElements());
+
+      verify(mock, times(1)).propertyChange(eventCaptor.capture());
+      assertRange(0, 5, eventCaptor.getValue());
+   }
+
+   @Test
+   void testInvertSelection() {
+      instance.selectIndices(0, 2, 4);
+      instance.invertSelection();
+      assertEquals(Lists.newArrayList("B", "D", "F"), instance.getSelectedElements());
+   }
+
+   @Test
+   void testValueIsAdjusting() {
+      instance.setValueIsAdjusting(true);
+      instance.selectIndices(1);
+      instance.selectIndices(3);
+      instance.setValueIsAdjusting(false);
+
+      verify(mock, times(3)).propertyChange(eventCaptor.capture());
+      MultiSelectionEvent last = (MultiSelectionEvent) eventCaptor.getValue();
+      assertFalse(last.getValueIsAdjusting());
+      assertRange(1, 3, last);
+      assertTrue(((MultiSelectionEvent) eventCaptor.getAllValues().get(0)).getValueIsAdjusting());
+   }
+
+   private static void assertRange(int first, int last, PropertyChangeEvent event) {
+      MultiSelectionEvent selectionEvent = (MultiSelectionEvent) event;
+      assertEquals(MultiSelectableList.SELECTION_PROPERTY, selectionEvent.getPropertyName());
+      assertEquals(first, selectionEvent.getFirstIndex());
+      assertEquals(last, selectionEvent.getLastIndex());
+   }
 }
@@ -2,10 +2,16 @@ package net.benfro.collections.sandbox;
 
 import ca.odell.glazedlists.EventList;
 import ca.odell.glazedlists.GlazedLists;
+import ca.odell.glazedlists.event.ListEvent;
+import com.google.common.base.Equivalence;
 import com.google.common.collect.Lists;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class HotSwappablePluggableListTest {
 
@@ -25,4 +31,107 @@ class HotSwappablePluggableListTest {
       assertEquals(3, pluggableList.size());
 
    }
+
+   @Test
+   void testSwapSourcePublishesOnlyTheDifference() {
+      HotSwappablePluggableList<String> pluggableList = new HotSwappablePluggableList<>();
+      EventList<String> first = pluggableList.createSourceList();
+      first.addAll(Lists.newArrayList("A", "B", "C", "D"));
+      EventList<String> second = pluggableList.createSourceList();
+      second.addAll(Lists.newArrayList("A", "C", "D", "E"));
+      pluggableList.swapSource(first, Equivalence.equals());
+
+      List<Integer> changeTypes = new ArrayList<>();
+      pluggableList.addListEventListener(listEvent -> {
+         while (listEvent.next()) {
+            changeTypes.add(listEvent.getType());
+         }
+      });
+      pluggableList.swapSource(second, Equivalence.equals());
+
+      assertEquals(second, pluggableList);
+      assertEquals(Lists.newArrayList(ListEvent.DELETE, ListEvent.INSERT), changeTypes);
+
+      second.add("F");
+      assertEquals(5, pluggableList.size());
+   }
+
+   @Test
+   void testSwapSourceRequiresSharedPublisher() {
+      HotSwappablePluggableList<String> pluggableList = new HotSwappablePluggableList<>();
+      assertThrows(IllegalArgumentException.class, () -> pluggableList.swapSource(GlazedLists.eventList(Lists.newArrayList("A"))));
+   }
+
+   @Test
+   void testPreparedSwapPublishesOnlyTheDifference() {
+      HotSwappablePluggableList<String> pluggableList = new HotSwappablePluggableList<>();
+      EventList<String> strings = GlazedLists.eventList(Lists.newArrayList("A", "B", "C"));
+      pluggableList.setSource(strings);
+      EventList<String> strings2 = GlazedLists.eventList(Lists.newArrayList(strings.get(0), strings.get(1), "D"));
+
+      HotSwappablePluggableList.PreparedSource<String> prepared =
+              pluggableList.prepareSource(strings2, Equivalence.identity(), Runnable::run).join();
+      assertEquals(Lists.newArrayList("A", "B", "C"), pluggableList);
+
+      List<Integer> changeTypes = new ArrayList<>();
+      pluggableList.addListEventListener(listEvent -> {
+         while (listEvent.next()) {
+            changeTypes.add(listEvent.getType());
+         }
+      });
+      pluggableList.commitSwap(prepared);
+
+      assertEquals(Lists.newArrayList("A", "B", "D"), pluggableList);
+      assertEquals(Lists.newArrayList(ListEvent.UPDATE), changeTypes);
+
+      strings2.add("E");
+      assertEquals(4, pluggableList.size());
+      strings.add("F");
+      assertEquals(4, pluggableList.size());
+   }
+
+   @Test
+   void testPreparedSwapReplacesAllWhenListChangedMeanwhile() {
+      HotSwappablePluggableList<String> pluggableList = new HotSwappablePluggableList<>();
+      EventList<String> strings = GlazedLists.eventList(Lists.newArrayList("A", "B", "C"));
+      pluggableList.setSource(strings);
+
+      HotSwappablePluggableList.PreparedSource<String> prepared =
+              pluggableList.prepareSource(GlazedLists.eventList(Lists.newArrayList("D")), Equivalence.identity(), Runnable::run).join();
+      strings.add("X");
+      pluggableList.commitSwap(prepared);
+
+      assertEquals(Lists.newArrayList("D"), pluggableList);
+   }
+
+   @Test
+   void testPreparedSwapCatchesUpWithResizedSource() {
+      HotSwappablePluggableList<String> pluggableList = new HotSwappablePluggableList<>();
+      EventList<String> strings = GlazedLists.eventList(Lists.newArrayList("A"));
+
+      HotSwappablePluggableList.PreparedSource<String> prepared = pluggableList.prepareSource(strings).join();
+      strings.add("B");
+      pluggableList.commitSwap(prepared);
+
+      assertEquals(Lists.newArrayList("A", "B"), pluggableList);
+      strings.add("C");
+      assertEquals(Lists.newArrayList("A", "B", "C"), pluggableList);
+   }
+
+   @Test
+   void testPreparedSwapCatchesUpWithSourceChangedInPlace() {
+      HotSwappablePluggableList<String> pluggableList = new HotSwappablePluggableList<>();
+      EventList<String> strings = GlazedLists.eventList(Lists.newArrayList("A", "B"));
+      pluggableList.setSource(GlazedLists.eventList(Lists.newArrayList("A", "B")));
+      List<ListEvent<String>> events = new ArrayList<>();
+      pluggableList.addListEventListener(events::add);
+
+      HotSwappablePluggableList.PreparedSource<String> prepared =
+              pluggableList.prepareSource(strings, Equivalence.equals(), Runnable::run).join();
+      strings.set(0, "C");
+      pluggableList.commitSwap(prepared);
+
+      assertEquals(Lists.newArrayList("C", "B"), pluggableList);
+      assertEquals(1, events.size());
+   }
 }